@@ -0,0 +1,96 @@
+package com.global.benchmark;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.LoginAccount;
+import com.global.account.SignUpForm;
+import com.global.account.SignUpFormValidator;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+// 로그인, 회원 가입에서 자주 실행되는 code 의 실행 시간
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountBenchmark {
+
+  AccountService accountService;
+  SignUpFormValidator signUpFormValidator;
+  LoginAccount loginAccount;
+  SignUpForm newSignUpForm;
+  SignUpForm takenSignUpForm;
+
+  @Setup(Level.Trial)
+  public void setUp(ApplicationState application) {
+    accountService = application.bean(AccountService.class);
+    signUpFormValidator = application.bean(SignUpFormValidator.class);
+    loginAccount = application.bean(AccountRepository.class).findLoginAccount(ApplicationState.NICK_NAME);
+
+    newSignUpForm = signUpForm("newuser", "newuser@gmail.com");
+    takenSignUpForm = signUpForm(ApplicationState.NICK_NAME, ApplicationState.EMAIL);
+  }
+
+  // 로그인할 때 Spring Security 가 호출함 (두 번째부터는 cache 에서 조회함)
+  @Benchmark
+  public UserDetails loadUserByUsername() {
+    return accountService.loadUserByUsername(ApplicationState.NICK_NAME);
+  }
+
+  // 처음 사용하는 email, nickName : Bloom filter 에서 끝남
+  @Benchmark
+  public Errors validateNewSignUpForm() {
+    return validate(newSignUpForm);
+  }
+
+  // 이미 사용 중인 email, nickName : DB 를 한 번 조회함
+  @Benchmark
+  public Errors validateTakenSignUpForm() {
+    return validate(takenSignUpForm);
+  }
+
+  @Benchmark
+  public UserAccount newUserAccount() {
+    return new UserAccount(loginAccount);
+  }
+
+  @Benchmark
+  public Account generateEmailCheckToken() {
+    Account account = new Account();
+    account.generateEmailCheckToken();
+    return account;
+  }
+
+  private Errors validate(SignUpForm signUpForm) {
+    Errors errors = new BeanPropertyBindingResult(signUpForm, "signUpForm");
+    signUpFormValidator.validate(signUpForm, errors);
+    return errors;
+  }
+
+  private static SignUpForm signUpForm(String nickName, String email) {
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName(nickName);
+    signUpForm.setEmail(email);
+    signUpForm.setPassword(ApplicationState.PASSWORD);
+    return signUpForm;
+  }
+
+}
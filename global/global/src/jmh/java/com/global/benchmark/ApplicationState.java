@@ -0,0 +1,58 @@
+package com.global.benchmark;
+
+import com.global.GlobalApplication;
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+benchmark 에서 함께 사용하는 Spring application
+  - fork 마다 한 번 실행하고, 내장 H2 DB 를 사용함
+  - 로그인, 가입 확인에 사용할 회원(benchmark / benchmark@gmail.com)을 하나 만들어 둠
+*/
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+  static final String NICK_NAME = "benchmark";
+  static final String EMAIL = "benchmark@gmail.com";
+  static final String PASSWORD = "12345678";
+
+  ConfigurableApplicationContext context;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = new SpringApplicationBuilder(GlobalApplication.class)
+      .properties("server.port=0",
+                  "logging.level.root=warn",
+                  "spring.jpa.show-sql=false",
+                  "app.image.store-dir=target/benchmark-images")
+      // properties() 는 application.properties 보다 우선순위가 낮으므로
+      // application.properties 에 있는 값은 command line 인자로 바꿈
+      //  ㄴ 한 IP(localhost)에서 계속 요청하므로 요청 수 제한(RateLimits)을 사실상 없앰
+      .run("--app.rate-limit.availability-per-ip=1000000");
+
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName(NICK_NAME);
+    signUpForm.setEmail(EMAIL);
+    signUpForm.setPassword(PASSWORD);
+    bean(AccountService.class).processNewAccount(signUpForm);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    bean(AccountRepository.class).deleteAll();
+    context.close();
+  }
+
+  <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+}
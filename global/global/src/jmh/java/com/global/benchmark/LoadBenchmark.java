@@ -0,0 +1,152 @@
+package com.global.benchmark;
+
+import com.global.GlobalApplication;
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+실제 HTTP 요청으로 가입, 로그인을 처리하는 처리량 (platform thread / virtual thread 비교)
+  - virtual=true 는 JDK 24 이상에서만 실행됨
+      ㄴ mvn -Pbenchmark test-compile exec:exec -Djmh.include=LoadBenchmark -Djmh.java=<JDK 24 의 bin/java>
+  - 요청마다 처음 방문한 사용자처럼 GET /sign-up 으로 session 과 CSRF token 을 받은 뒤 POST 함
+  - 가입, 로그인 모두 bcrypt 가 대부분의 시간을 차지하므로 BoundedPasswordEncoder 의 thread 수가 처리량의 상한이 됨
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(32)
+public class LoadBenchmark {
+
+  private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+  private static final Pattern SESSION = Pattern.compile("SESSION=([^;]+)");
+
+  @State(Scope.Benchmark)
+  public static class Server {
+
+    @Param({"false", "true"})
+    boolean virtual;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    String baseUrl;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+      context = new SpringApplicationBuilder(GlobalApplication.class)
+        .properties("server.port=0",
+                    "logging.level.root=warn",
+                    "spring.jpa.show-sql=false",
+                    "app.image.store-dir=target/benchmark-images")
+        // properties() 는 application.properties 보다 우선순위가 낮으므로
+        // application.properties 에 있는 값은 command line 인자로 바꿈
+        //  ㄴ 한 IP(localhost)에서 계속 요청하므로 요청 수 제한(RateLimits)을 사실상 없앰
+        .run("--app.threads.virtual=" + virtual,
+             "--app.rate-limit.login-per-ip=1000000",
+             "--app.rate-limit.login-per-username=1000000",
+             "--app.rate-limit.sign-up-per-ip=1000000");
+      baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+      // redirect 를 따라가지 않고 302 응답을 그대로 받음
+      client = HttpClient.newBuilder()
+                         .followRedirects(HttpClient.Redirect.NEVER)
+                         .connectTimeout(Duration.ofSeconds(5))
+                         .build();
+
+      SignUpForm signUpForm = new SignUpForm();
+      signUpForm.setNickName(ApplicationState.NICK_NAME);
+      signUpForm.setEmail(ApplicationState.EMAIL);
+      signUpForm.setPassword(ApplicationState.PASSWORD);
+      context.getBean(AccountService.class).processNewAccount(signUpForm);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+      context.getBean(AccountRepository.class).deleteAll();
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public int signUp(Server server) throws Exception {
+    long id = server.sequence.incrementAndGet();
+    return post(server, "/sign-up", Map.of("nickName", "load" + id,
+                                           "email", "load" + id + "@gmail.com",
+                                           "password", ApplicationState.PASSWORD));
+  }
+
+  @Benchmark
+  public int login(Server server) throws Exception {
+    return post(server, "/login", Map.of("username", ApplicationState.NICK_NAME,
+                                         "password", ApplicationState.PASSWORD));
+  }
+
+  // GET /sign-up 으로 받은 session, CSRF token 으로 form 을 보냄 (성공하면 302)
+  private int post(Server server, String path, Map<String, String> form) throws Exception {
+    HttpResponse<String> page = server.client.send(HttpRequest.newBuilder(URI.create(server.baseUrl + "/sign-up")).build(),
+                                                   HttpResponse.BodyHandlers.ofString());
+    String session = find(SESSION, page.headers().firstValue("Set-Cookie").orElse(""));
+    String csrf = find(CSRF, page.body());
+
+    String body = form.entrySet().stream()
+                      .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                      .collect(Collectors.joining("&", "_csrf=" + encode(csrf) + "&", ""));
+    HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + path))
+                                     .header("Content-Type", "application/x-www-form-urlencoded")
+                                     .header("Cookie", "SESSION=" + session)
+                                     .POST(HttpRequest.BodyPublishers.ofString(body))
+                                     .build();
+    int status = server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    if (status != 302) {
+      throw new IllegalStateException(path + " 요청 실패 : " + status);
+    }
+    return status;
+  }
+
+  private static String find(Pattern pattern, String text) throws IOException {
+    Matcher matcher = pattern.matcher(text);
+    if (!matcher.find()) {
+      throw new IOException(pattern + " 을 찾을 수 없습니다");
+    }
+    return matcher.group(1);
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+}
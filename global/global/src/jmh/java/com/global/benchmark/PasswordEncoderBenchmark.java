@@ -0,0 +1,55 @@
+package com.global.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// application 에 등록된 PasswordEncoder(BoundedPasswordEncoder) 의 실행 시간
+//  ㄴ bcrypt strength 는 서버를 시작할 때 정해지므로 실행하는 PC 마다 결과가 다름
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+  PasswordEncoder passwordEncoder;
+  String encoded;
+
+  @Setup(Level.Trial)
+  public void setUp(ApplicationState application) {
+    passwordEncoder = application.bean(PasswordEncoder.class);
+    encoded = passwordEncoder.encode(ApplicationState.PASSWORD);
+  }
+
+  @Benchmark
+  public String encode() {
+    return passwordEncoder.encode(ApplicationState.PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return passwordEncoder.matches(ApplicationState.PASSWORD, encoded);
+  }
+
+  // 로그인이 몰릴 때 : thread 가 CPU 개수보다 많으면 queue 에서 기다리는 시간이 늘어남
+  @Benchmark
+  @Threads(16)
+  public boolean matchesUnderLoad() {
+    return passwordEncoder.matches(ApplicationState.PASSWORD, encoded);
+  }
+
+}
@@ -0,0 +1,82 @@
+package com.global.benchmark;
+
+import com.global.account.AccountRepository;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+
+import javax.servlet.ServletContext;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// index.html (fragments.html 의 head, main-nav, footer 포함) 을 그리는 시간
+//  ㄴ Controller 를 거치지 않고 ThymeleafView 만 실행함
+//  ㄴ SecurityContextHolder 는 thread 마다 따로 있으므로 Scope.Thread 로 둠
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderingBenchmark {
+
+  ServletContext servletContext;
+  View indexView;
+  Account account;
+  UsernamePasswordAuthenticationToken authentication;
+
+  @Setup(Level.Trial)
+  public void setUp(ApplicationState application) throws Exception {
+    servletContext = ((WebApplicationContext) application.context).getServletContext();
+    indexView = application.bean(ThymeleafViewResolver.class).resolveViewName("index", Locale.KOREA);
+    account = application.bean(AccountRepository.class).findByNickName(ApplicationState.NICK_NAME);
+    UserAccount userAccount = new UserAccount(account);
+    userAccount.eraseCredentials();
+    authentication = new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public String anonymousIndex() throws Exception {
+    SecurityContextHolder.clearContext();
+    return render(Map.of());
+  }
+
+  // 로그인한 회원 : 네비게이션 바에 프로필 사진, 메뉴가 추가로 그려짐
+  @Benchmark
+  public String authenticatedIndex() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+    return render(Map.of("account", account));
+  }
+
+  private String render(Map<String, ?> model) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    indexView.render(model, request, response);
+    return response.getContentAsString();
+  }
+
+}
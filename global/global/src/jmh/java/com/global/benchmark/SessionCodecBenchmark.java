@@ -0,0 +1,112 @@
+package com.global.benchmark;
+
+import com.global.account.UserAccount;
+import com.global.config.SessionAttributeCodec;
+import com.global.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.web.servlet.FlashMap;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// 요청마다 session 에 저장하고 읽어오는 attribute 의 직렬화 시간과 크기
+//  - attribute : 로그인 정보(SecurityContext), CSRF token, flash attribute(List<FlashMap>)
+//  - codec
+//      ㄴ compact  : application 에서 사용하는 설정 (필드 값만 씀)
+//      ㄴ java     : Java 직렬화 + 1024 byte 보다 크면 압축
+//      ㄴ java-raw : Java 직렬화만
+//  - 크기(byte)는 시작할 때 출력함
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionCodecBenchmark {
+
+  @Param({"securityContext", "csrfToken", "flashMaps"})
+  String attributeName;
+
+  @Param({"compact", "java", "java-raw"})
+  String codecName;
+
+  SessionAttributeCodec codec;
+  Object attribute;
+  byte[] serialized;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ClassLoader classLoader = getClass().getClassLoader();
+    switch (codecName) {
+      case "compact":
+        codec = new SessionAttributeCodec(1024, classLoader);
+        break;
+      case "java":
+        codec = new SessionAttributeCodec(1024, classLoader, false);
+        break;
+      default:
+        codec = new SessionAttributeCodec(Integer.MAX_VALUE, classLoader, false);
+    }
+    switch (attributeName) {
+      case "securityContext":
+        attribute = securityContext();
+        break;
+      case "csrfToken":
+        attribute = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", UUID.randomUUID().toString());
+        break;
+      default:
+        FlashMap flashMap = new FlashMap();
+        flashMap.setTargetRequestPath("/settings/profile");
+        flashMap.startExpirationPeriod(180);
+        flashMap.put("message", "프로필이 수정되었습니다.");
+        attribute = new CopyOnWriteArrayList<>(List.of(flashMap));
+    }
+    serialized = codec.serialize(attribute);
+    System.out.printf("%n%s / %s : %d bytes%n", attributeName, codecName, serialized.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return codec.serialize(attribute);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return codec.deserialize(serialized);
+  }
+
+  // 로그인 form 으로 로그인한 것과 같은 SecurityContext (비밀번호는 지움)
+  private static SecurityContext securityContext() {
+    Account account = Account.builder()
+                             .id(1L)
+                             .email(ApplicationState.EMAIL)
+                             .nickName(ApplicationState.NICK_NAME)
+                             .password(ApplicationState.PASSWORD)
+                             .build();
+    UserAccount userAccount = new UserAccount(account);
+    userAccount.eraseCredentials();
+    UsernamePasswordAuthenticationToken authentication =
+      new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities());
+    authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", UUID.randomUUID().toString()));
+    return new SecurityContextImpl(authentication);
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.global.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/*
+서버를 시작할 때 넘긴 옵션으로 회원을 가져오거나 내보냄
+  - 가져오기 : --import-accounts=accounts.csv [--checkpoint=accounts.csv.checkpoint] [--send-mail]
+                 ㄴ checkpoint 를 지정하지 않으면 가져오는 파일 이름 뒤에 .checkpoint 를 붙인 파일을 사용함
+                 ㄴ --send-mail : 인증하지 않은 회원에게 인증 메일을 보냄
+  - 내보내기 : --export-accounts=accounts.jsonl
+  - 가져오기, 내보내기가 끝난 뒤에도 서버는 그대로 실행됨
+  - 옵션이 없으면 아무것도 하지 않음
+*/
+@Component
+@RequiredArgsConstructor
+public class AccountBulkRunner implements ApplicationRunner {
+
+  static final String IMPORT = "import-accounts";
+  static final String EXPORT = "export-accounts";
+  static final String CHECKPOINT = "checkpoint";
+  static final String SEND_MAIL = "send-mail";
+
+  private final AccountImporter accountImporter;
+  private final AccountExporter accountExporter;
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (args.containsOption(IMPORT)) {
+      Path file = Path.of(value(args, IMPORT));
+      Path checkpoint = args.containsOption(CHECKPOINT)
+                        ? Path.of(value(args, CHECKPOINT))
+                        : file.resolveSibling(file.getFileName() + ".checkpoint");
+      accountImporter.importAccounts(file, checkpoint, args.containsOption(SEND_MAIL));
+    }
+    if (args.containsOption(EXPORT)) {
+      accountExporter.exportAccounts(Path.of(value(args, EXPORT)));
+    }
+  }
+
+  private static String value(ApplicationArguments args, String name) {
+    if (args.getOptionValues(name).size() != 1) {
+      throw new IllegalArgumentException("--" + name + "=<파일> 형식으로 넘겨야 합니다");
+    }
+    return args.getOptionValues(name).get(0);
+  }
+
+}
@@ -1,10 +1,15 @@
 package com.global.account;
 
+import com.global.config.PasswordEncoderBusyException;
+import com.global.config.RateLimits;
 import com.global.domain.Account;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -13,7 +18,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 
@@ -24,6 +33,9 @@ public class AccountController {
   private final SignUpFormValidator signUpFormValidator;
   private final AccountService accountService;
   private final AccountRepository accountRepository;
+  private final SignUpAvailability signUpAvailability;
+  private final MemberStatistics memberStatistics;
+  private final RateLimits rateLimits;
 
 
   @InitBinder("signUpForm")
@@ -40,10 +52,20 @@ public class AccountController {
     return "account/sign-up";
   }
 
+  // 회원가입 페이지에서 닉네임, 이메일을 입력할 때 사용 중인지 확인하는 메소드
+  //  ㄴ 화면이 아니라 JSON ({"email":true,"nickName":false}) 으로 응답함 (@ResponseBody)
+  //  ㄴ true : 사용할 수 있음
+  @GetMapping("/sign-up/availability")
+  @ResponseBody
+  public SignUpAvailability.Result signUpAvailability(@RequestParam(required = false) String email,
+                                                      @RequestParam(required = false) String nickName){
+    return signUpAvailability.check(email, nickName);
+  }
+
   // 회원가입 페이지에서 submit 버튼 눌렀을 때
   // 자동으로 호출되는 메소드
   @PostMapping("/sign-up")
-  public String signUpSubmit(@Valid SignUpForm signUpForm, Errors errors){
+  public String signUpSubmit(@Valid SignUpForm signUpForm, Errors errors, HttpServletResponse response){
     if(errors.hasErrors()){
       // 에러가 발생하면 다음 페이지로 넘어가지 않고
       // 다시 sign-up 페이지를 보여줌
@@ -63,7 +85,23 @@ public class AccountController {
     }
     */
 
-    Account account = accountService.processNewAccount(signUpForm);
+    Account account;
+    try {
+      account = accountService.processNewAccount(signUpForm);
+    } catch (PasswordEncoderBusyException e) {
+      // 비밀번호 계산 요청이 많아서 거절됨 (BoundedPasswordEncoder) : 입력한 값은 그대로 두고 다시 시도하게 함
+      errors.rejectValue("password", "busy", e.getMessage());
+      response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      return "account/sign-up";
+    } catch (DataIntegrityViolationException e) {
+      // 확인한 뒤에 다른 요청(다른 서버)이 같은 email, nickName 으로 먼저 가입함 (unique 제약 조건)
+      //  ㄴ 다시 확인해서 사용 중인 값에 error 를 보여줌
+      signUpFormValidator.validate(signUpForm, errors);
+      if (!errors.hasErrors()) {
+        throw e;
+      }
+      return "account/sign-up";
+    }
     accountService.login(account);
     /*
      이 부분은 Service 에서 실행하는 부분이라서
@@ -82,58 +120,24 @@ public class AccountController {
 
   // String token  <-- 가입하면서 받아온 token
   // 인증 메일 처리하는 부분
+  //  - token 은 id, nonce 에 서명한 값이므로 이메일로 회원을 조회하지 않음 (EmailTokenSigner)
+  //  - 서명, 유효 기간 확인과 회원 가입 완료(update), 로그인은 AccountService 에서 처리함
+  //      ㄴ 위조되었거나 만료된 token 은 DB 를 조회하지 않고 error 를 보여줌
   @GetMapping("/check-email-token")
-  public String checkEmailToken(String token, String email, Model model){
-    // 가입자가 입력한 이메일이 정상적으로 등록되었는지 확인하기
-    Account account = accountRepository.findByEmail(email);
-
+  public String checkEmailToken(String token, Model model){
     // 이동할 page
     String view = "account/check-email";
 
-    // 가입자가 입력한 이메일이 정상적으로 등록 안 된 경우
+    LoginAccount account = accountService.completeSignUp(token);
+    // token 이 잘못되었거나, 만료되었거나, 이미 사용한 경우
     if (account == null){
       model.addAttribute("error", "wrong email");
       return view;
     }
 
-    if (!account.isValidToken(token)){
-      model.addAttribute("error", "wrong email");
-      return view;
-    }
-
-    // 가입자가 입력한 이메일이 정상적으로 등록된 경우
-    // token 확인하기
-    if (!account.getEmailCheckToken().equals(token)){
-      model.addAttribute("error", "wrong email");
-      return view;
-    }
-
-
-    // 위의 검증을 거친 후 처리하는 부분
-    //   - Entity 객체 변경은 반드시 Transaction 안에서 해야 함 :
-    //             AccountService 클래스에서 completeSignUp() 메소드에 @Transactional 을 적용함
-    //     ㄴ Transaction 종료 직전이나 필요한 시점에 변경 사항을 DB 에 반영할 수 있기 때문
-    //  completeSignUp(account) : persistence 상태의 entity
-    //  (Repository 를 구현한 객체들은 기본적으로 @Transactional 이 적용되어 있음)
-    // completeSignUp(account) 에서의 account 객체는 persistence context 상태임
-    //                                   ㄴ 88 행에서 생성된 account 객체
-    accountService.completeSignUp(account);
-    /*
-      아래의 내용을 completeSignUp() 메소드로 옮김
-      account.completeSignUp();
-      accountService.login(account);
-    */
-
-    /*
-    아래 code 를 Account 클래스의 completeSignUp() 메소드로 옮기기
-
-    // 가입자가 입력한 이메일이 정상적으로 등록된 경우 + token 까지 확인된 경우
-    account.setEmailVerified(true);
-    // 가입한 시간 등록
-    account.setJoinedAt(LocalDateTime.now());
-    */
-    // 몇 번째(accountRepository.count()) 가입자인지... 처리하기
-    model.addAttribute("numberOfUser", accountRepository.count());
+    // 몇 번째 가입자인지... 처리하기
+    //  ㄴ accountRepository.count() 로 테이블 전체를 세지 않고 memory 에 보관한 회원 수를 사용함
+    model.addAttribute("numberOfUser", memberStatistics.getTotal());
     // nickname
     model.addAttribute("nickName", account.getNickName());
 
@@ -149,37 +153,43 @@ public class AccountController {
   // checkout-email.html 에서 인증 메일 다시 보내기 버튼 눌렀을 때
   // 주소표시줄에 localhost:8080/resend-confirm-email URL 이 입력되면
   // 자동으로 호출되는 메소드
+  //  - 같은 회원의 요청이 몰리면 Account 를 조회하기 전에 RateLimits 로 먼저 거절함
+  //      ㄴ session 의 principal(UserAccount)에 있는 accountId, email 만 사용함
   @GetMapping("/resend-confirm-email")
-  public String resendConfirmEmail(@CurrentUser Account account, Model model){
+  public String resendConfirmEmail(@AuthenticationPrincipal UserAccount userAccount, Model model){
+    if(!rateLimits.getResendEmail().acquire("account:" + userAccount.getAccountId()).isZero()){
+      model.addAttribute("error", "인증 이메일은 1 시간에 한 번만 전송 가능합니다.");
+      model.addAttribute("email", userAccount.getEmail());
+      return "account/checkout-email";
+    }
+
     // 인증 메일을 1 시간 이내에 전송한 이력이 있다면 좀 기다렸다가 1 시간 지난 후 전송해야 함
-    if(!account.canSendConfirmEmail()){
+    //  ㄴ 이력이 없다면 새 token 을 만들어서 전송함 (AccountService.resendSignUpConfirmEmail)
+    if(!accountService.resendSignUpConfirmEmail(userAccount.getAccountId())){
       model.addAttribute("error", "인증 이메일은 1 시간에 한 번만 전송 가능합니다.");
-      model.addAttribute("email", account.getEmail());
+      model.addAttribute("email", userAccount.getEmail());
       // 에러 메세지를 보여주고 같은 페이지를 다시 보여줌
       return "account/checkout-email";
     }
-     // 인증 메일을 1 시간 이내에 전송한 이력이 없다면 전송하고 첫 페이지로 이동함
-     accountService.sendSignUpConfirmEmail(account);
-     return "redirect:/";
+    // 전송하고 첫 페이지로 이동함
+    return "redirect:/";
   }
 
+  // 프로필 조회
+  //  - 화면에 보여주는 column 만 조회하고(PublicProfile), 조회 결과는 cache 에 보관함
+  //  - 본인의 프로필인지는 session 의 principal(UserAccount)의 accountId 로 비교함 (Account 를 조회하지 않음)
+  //      ㄴ 로그인하지 않았으면 userAccount 는 null 임
+  //  - 없는 nickName 이면 404 Not Found
   @GetMapping("/profile/{nickName}")
   public String viewProfile(@PathVariable String nickName,
-                            @CurrentUser Account account, Model model){
+                            @AuthenticationPrincipal UserAccount userAccount, Model model){
 
-    Account byNickName = accountRepository.findByNickName(nickName);
-    // nickName 이 들어오지 않은 경우
-    if (nickName == null){
-      throw  new IllegalArgumentException(nickName + " 에 해당하는 회원이 없습니다");
+    PublicProfile profile = accountRepository.findPublicProfile(nickName);
+    if (profile == null){
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, nickName + " 에 해당하는 회원이 없습니다");
     }
-    // nickName 이 들어온 경우 <-- byNickName 을 메모리에 올려서
-    //                              return 에서 지정한 html 페이지에서 사용할 수 있도록 함
-    // model.addAttribute( ) 에 attributeValue(값) 만 지정하면,
-    // attributeName(변수) 이름은 byNickName 에 들어가는 객체 type 의 camel case 로 사용함
-    //                                                      ㄴ Account  <-- account
-    model.addAttribute(byNickName);
-    // model.addAttribute("account", byNickName);
-    model.addAttribute("isCurrentUser", byNickName.equals(account));
+    model.addAttribute("profile", profile);
+    model.addAttribute("isCurrentUser", userAccount != null && profile.getId().equals(userAccount.getAccountId()));
 
     return "account/profile";
   }
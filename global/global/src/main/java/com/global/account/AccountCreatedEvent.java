@@ -0,0 +1,12 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 회원 가입 form 을 저장했을 때 AccountService 가 발행하는 event
+//  ㄴ 아직 이메일 인증은 하지 않은 상태임
+@Getter
+@RequiredArgsConstructor
+public class AccountCreatedEvent {
+  private final Long accountId;
+}
@@ -0,0 +1,90 @@
+package com.global.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+회원을 파일(.csv, .jsonl)로 내보내는 클래스 (AccountBulkRunner)
+  - AccountImporter 로 다시 가져올 수 있는 형식으로 씀 (비밀번호는 encoding 된 값)
+      ㄴ 가져오기가 저장하는 column(프로필, 알림 설정 포함)을 모두 씀
+  - 회원 전체를 메모리에 올리지 않고 fetch-size 개씩 DB 에서 받아서 바로 파일에 씀
+      ㄴ PostgreSQL 은 Transaction 안에서만 fetch-size 만큼 나누어 받으므로 read-only Transaction 에서 조회함
+  - 임시 파일에 다 쓴 다음 이름을 바꾸므로 중간에 멈춰도 반쯤 쓴 파일이 남지 않음
+*/
+@Slf4j
+@Component
+public class AccountExporter {
+
+  private static final String SELECT_SQL =
+    "select email, nick_name, password, email_verified, joined_at,"
+    + " bio, url, occupation, location, profile_image, notification_preferences from account order by id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectMapper objectMapper;
+
+  public AccountExporter(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${app.account-export.fetch-size:1000}") int fetchSize) {
+    // 다른 곳에서 사용하는 JdbcTemplate 의 설정을 바꾸지 않도록 새로 만듦
+    this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  // return : 내보낸 회원 수
+  public long exportAccounts(Path file) throws IOException {
+    AccountFileFormat format = AccountFileFormat.of(file);
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    AtomicLong count = new AtomicLong();
+    try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+      if (format.header() != null) {
+        writer.write(format.header());
+        writer.newLine();
+      }
+      readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT_SQL, rs -> {
+        Timestamp joinedAt = rs.getTimestamp("joined_at");
+        AccountRecord record = new AccountRecord(rs.getString("email"), rs.getString("nick_name"),
+                                                 rs.getString("password"), rs.getBoolean("email_verified"),
+                                                 joinedAt == null ? null : joinedAt.toLocalDateTime(),
+                                                 rs.getString("bio"), rs.getString("url"),
+                                                 rs.getString("occupation"), rs.getString("location"),
+                                                 rs.getString("profile_image"), rs.getInt("notification_preferences"));
+        try {
+          writer.write(format.write(record, objectMapper));
+          writer.newLine();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        if (count.incrementAndGet() % 10000 == 0) {
+          log.info("회원 내보내기 : {} 명", count.get());
+        }
+      }));
+    } catch (UncheckedIOException e) {
+      Files.deleteIfExists(temp);
+      throw e.getCause();
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    log.info("회원 내보내기 완료 : {} 명 → {}", count.get(), file);
+    return count.get();
+  }
+
+}
@@ -0,0 +1,152 @@
+package com.global.account;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+회원 가져오기/내보내기 파일 형식 (파일의 확장자로 정함)
+  - .csv   : 첫 줄은 header, 그 다음부터 한 줄에 회원 한 명
+               ㄴ header : email,nickName,password,emailVerified,joinedAt,bio,url,occupation,location,profileImage,notificationPreferences
+               ㄴ 앞의 5 개(email ~ joinedAt)만 있는 예전 파일도 읽음 (프로필은 비어 있고, 알림은 회원 가입할 때의 설정)
+               ㄴ , " 가 들어간 값은 "..." 로 감싸고 " 는 "" 로 씀 (값 안의 줄바꿈은 지원하지 않음)
+  - .jsonl : 한 줄에 회원 한 명을 JSON 으로 씀 ({"email":...,"nickName":...})
+  - 한 줄씩 읽고 쓰므로 파일이 커도 한꺼번에 메모리에 올리지 않음
+*/
+enum AccountFileFormat {
+
+  CSV {
+    @Override
+    String header() {
+      return "email,nickName,password,emailVerified,joinedAt,bio,url,occupation,location,profileImage,notificationPreferences";
+    }
+
+    @Override
+    AccountRecord read(String line, ObjectMapper objectMapper) {
+      List<String> values = split(line);
+      if (values.size() != 5 && values.size() != 11) {
+        throw new IllegalArgumentException("값이 5 개나 11 개가 아닙니다 : " + values.size());
+      }
+      AccountRecord record = new AccountRecord();
+      record.setEmail(values.get(0));
+      record.setNickName(values.get(1));
+      record.setPassword(values.get(2));
+      record.setEmailVerified(Boolean.parseBoolean(values.get(3)));
+      record.setJoinedAt(values.get(4).isEmpty() ? null : LocalDateTime.parse(values.get(4)));
+      if (values.size() == 11) {
+        record.setBio(emptyToNull(values.get(5)));
+        record.setUrl(emptyToNull(values.get(6)));
+        record.setOccupation(emptyToNull(values.get(7)));
+        record.setLocation(emptyToNull(values.get(8)));
+        record.setProfileImage(emptyToNull(values.get(9)));
+        record.setNotificationPreferences(values.get(10).isEmpty() ? null : Integer.valueOf(values.get(10)));
+      }
+      return record;
+    }
+
+    @Override
+    String write(AccountRecord record, ObjectMapper objectMapper) {
+      return String.join(",", quote(record.getEmail()), quote(record.getNickName()), quote(record.getPassword()),
+                         String.valueOf(record.isEmailVerified()),
+                         record.getJoinedAt() == null ? "" : record.getJoinedAt().toString(),
+                         quote(record.getBio()), quote(record.getUrl()), quote(record.getOccupation()),
+                         quote(record.getLocation()), quote(record.getProfileImage()),
+                         record.getNotificationPreferences() == null ? "" : record.getNotificationPreferences().toString());
+    }
+  },
+
+  JSONL {
+    @Override
+    String header() {
+      return null;
+    }
+
+    @Override
+    AccountRecord read(String line, ObjectMapper objectMapper) {
+      try {
+        return objectMapper.readValue(line, AccountRecord.class);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException(e.getOriginalMessage(), e);
+      }
+    }
+
+    @Override
+    String write(AccountRecord record, ObjectMapper objectMapper) {
+      try {
+        return objectMapper.writeValueAsString(record);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  // 첫 줄에 쓰는 header, 없으면 null
+  abstract String header();
+
+  // 잘못된 줄이면 IllegalArgumentException
+  abstract AccountRecord read(String line, ObjectMapper objectMapper);
+
+  abstract String write(AccountRecord record, ObjectMapper objectMapper);
+
+  static AccountFileFormat of(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".csv")) {
+      return CSV;
+    }
+    if (name.endsWith(".jsonl")) {
+      return JSONL;
+    }
+    throw new IllegalArgumentException("지원하지 않는 파일 형식입니다 (.csv, .jsonl) : " + file);
+  }
+
+  private static List<String> split(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("\" 가 닫히지 않았습니다");
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private static String emptyToNull(String value) {
+    return value.isEmpty() ? null : value;
+  }
+
+  private static String quote(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+}
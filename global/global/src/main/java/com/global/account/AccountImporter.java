@@ -0,0 +1,368 @@
+package com.global.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global.config.AppConfig;
+import com.global.domain.Account;
+import com.global.domain.NotificationType;
+import com.global.mail.MailDispatcher;
+import com.global.settings.Profile;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/*
+회원을 파일(.csv, .jsonl)에서 한꺼번에 가져오는 클래스 (AccountBulkRunner)
+  - AccountService.processNewAccount 는 회원 한 명마다 insert, bcrypt, 메일을 한 Transaction 에서 처리하므로
+    수만 명을 옮길 때는 이 클래스를 사용함
+  - 파일을 한 줄씩 읽어서 batch-size 명씩 처리함 (파일 전체를 메모리에 올리지 않음)
+      ㄴ batch 마다 하나의 Transaction 에서 JDBC batch insert 로 저장함 (JPA 를 거치지 않음)
+      ㄴ id 는 Account 와 같은 sequence 에서 ID_ALLOCATION_SIZE 개씩 받아서 사용함
+  - 입력한 비밀번호는 여러 thread 에서 나누어 encoding 함 ({bcrypt}... 처럼 encoding 된 값은 그대로 저장함)
+      ㄴ PasswordEncoder 가 모르는 {id} 로 시작하면 로그인할 수 없으므로 건너뜀
+  - 회원 가입 화면과 같은 규칙으로 email, nickName 을, 설정 화면과 같은 규칙으로 프로필을 확인하고,
+    형식이 잘못되었거나 이미 사용 중인 email, nickName 은 건너뜀
+  - 처리한 줄 수를 checkpoint 파일에 저장함
+      ㄴ 중간에 멈추면 다시 실행할 때 checkpoint 다음 줄부터 가져옴
+      ㄴ commit 한 뒤 checkpoint 를 쓰기 전에 멈추더라도 이미 저장한 회원은 사용 중인 email 로 건너뜀
+      ㄴ 끝까지 가져오면 checkpoint 파일을 지움
+  - 인증 메일은 기본으로 보내지 않음 (인증하지 않은 회원은 나중에 인증 메일을 다시 보낼 수 있음)
+      ㄴ sendMail 이 true 이면 batch 가 commit 된 후에 MailDispatcher 의 queue 에 넣음
+      ㄴ queue 가 가득 차면 자리가 날 때까지 기다림 (MailDispatcher.enqueueAndWait), 넣지 못한 메일 수는 Result 에 셈
+*/
+@Slf4j
+@Component
+public class AccountImporter {
+
+  private static final String INSERT_SQL =
+    "insert into account (id, version, email, nick_name, password, email_verified, email_check_token,"
+    + " email_check_token_generated_at, joined_at, bio, url, occupation, location, profile_image,"
+    + " notification_preferences)"
+    + " values (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  // DelegatingPasswordEncoder 가 확인할 수 있는 {id} (strength 는 id 와 상관 없음)
+  private static final Set<String> ENCODER_IDS = AppConfig.passwordEncoders(4).keySet();
+  private static final String TAKEN_SQL =
+    "select email, nick_name from account where email in (:emails) or nick_name in (:nickNames)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final PasswordEncoder passwordEncoder;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final AccountService accountService;
+  private final MailDispatcher mailDispatcher;
+  private final SignUpAvailability signUpAvailability;
+  private final MemberStatistics memberStatistics;
+  private final String nextIdSql;
+  private final int batchSize;
+
+  public AccountImporter(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         EntityManagerFactory entityManagerFactory,
+                         PasswordEncoder passwordEncoder,
+                         Validator validator,
+                         ObjectMapper objectMapper,
+                         AccountService accountService,
+                         MailDispatcher mailDispatcher,
+                         SignUpAvailability signUpAvailability,
+                         MemberStatistics memberStatistics,
+                         @Value("${app.account-import.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.passwordEncoder = passwordEncoder;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.accountService = accountService;
+    this.mailDispatcher = mailDispatcher;
+    this.signUpAvailability = signUpAvailability;
+    this.memberStatistics = memberStatistics;
+    this.batchSize = batchSize;
+    // sequence 의 다음 값을 조회하는 SQL 은 DB 마다 다르므로 Hibernate 의 Dialect 에서 받음
+    this.nextIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                                        .getJdbcServices().getDialect()
+                                        .getSequenceNextValString(Account.ID_SEQUENCE);
+  }
+
+  public Result importAccounts(Path file, Path checkpoint, boolean sendMail) throws IOException {
+    AccountFileFormat format = AccountFileFormat.of(file);
+    long done = readCheckpoint(checkpoint);
+    if (done > 0) {
+      log.info("checkpoint 에 저장된 {} 줄 다음부터 가져옵니다", done);
+    }
+
+    Result result = new Result();
+    IdBlock ids = new IdBlock();
+    long lineNumber = 0;
+    List<Line> batch = new ArrayList<>(batchSize);
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (format.header() != null) {
+        reader.readLine();
+      }
+      String text;
+      while ((text = reader.readLine()) != null) {
+        lineNumber++;
+        if (lineNumber <= done || text.isBlank()) {
+          continue;
+        }
+        batch.add(new Line(lineNumber, text));
+        if (batch.size() == batchSize) {
+          importBatch(batch, format, ids, sendMail, result);
+          writeCheckpoint(checkpoint, lineNumber);
+          batch.clear();
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      importBatch(batch, format, ids, sendMail, result);
+    }
+    Files.deleteIfExists(checkpoint);
+
+    // 회원 수는 한 번에 다시 셈
+    memberStatistics.reconcile();
+    log.info("회원 가져오기 완료 : 추가 {}, 건너뜀 {}, 보내지 못한 메일 {}", result.imported, result.skipped, result.mailDropped);
+    return result;
+  }
+
+  private void importBatch(List<Line> lines, AccountFileFormat format, IdBlock ids, boolean sendMail, Result result) {
+    List<AccountRecord> records = new ArrayList<>(lines.size());
+    for (Line line : lines) {
+      AccountRecord record = read(line, format);
+      if (record == null) {
+        result.skipped++;
+      } else {
+        records.add(record);
+      }
+    }
+    records = withoutTaken(records, result);
+
+    // bcrypt 는 CPU 를 많이 사용하므로 여러 thread 에서 나누어 계산함
+    //  ㄴ PasswordEncoder(BoundedPasswordEncoder) 가 동시에 계산하는 개수를 CPU 개수로 제한함
+    List<String> passwords = records.parallelStream()
+                                    .map(r -> isEncoded(r.getPassword()) ? r.getPassword() : passwordEncoder.encode(r.getPassword()))
+                                    .collect(Collectors.toList());
+
+    LocalDateTime now = LocalDateTime.now();
+    List<Account> accounts = new ArrayList<>(records.size());
+    for (int i = 0; i < records.size(); i++) {
+      AccountRecord record = records.get(i);
+      Account account = Account.builder()
+                               .id(ids.next())
+                               .email(record.getEmail())
+                               .nickName(record.getNickName())
+                               .password(passwords.get(i))
+                               .emailVerified(record.isEmailVerified())
+                               .bio(record.getBio())
+                               .url(record.getUrl())
+                               .occupation(record.getOccupation())
+                               .location(record.getLocation())
+                               .profileImage(record.getProfileImage())
+                               .notificationPreferences(record.getNotificationPreferences() != null
+                                                        ? record.getNotificationPreferences() : NotificationType.DEFAULT)
+                               .build();
+      if (record.isEmailVerified()) {
+        account.setJoinedAt(record.getJoinedAt() != null ? record.getJoinedAt() : now);
+      } else {
+        // 인증 메일을 다시 보낼 수 있도록 token 을 만들어 둠
+        account.setEmailCheckToken(UUID.randomUUID().toString());
+        account.setEmailCheckTokenGeneratedAt(now);
+      }
+      accounts.add(account);
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.batchUpdate(INSERT_SQL, accounts, accounts.size(), (ps, account) -> {
+        ps.setLong(1, account.getId());
+        ps.setString(2, account.getEmail());
+        ps.setString(3, account.getNickName());
+        ps.setString(4, account.getPassword());
+        ps.setBoolean(5, account.isEmailVerified());
+        ps.setString(6, account.getEmailCheckToken());
+        ps.setTimestamp(7, timestamp(account.getEmailCheckTokenGeneratedAt()));
+        ps.setTimestamp(8, timestamp(account.getJoinedAt()));
+        ps.setString(9, account.getBio());
+        ps.setString(10, account.getUrl());
+        ps.setString(11, account.getOccupation());
+        ps.setString(12, account.getLocation());
+        ps.setString(13, account.getProfileImage());
+        ps.setInt(14, account.getNotificationPreferences());
+      });
+    });
+    if (sendMail) {
+      // commit 한 뒤에 Transaction 밖에서 넣음 (queue 가 가득 차면 자리가 날 때까지 기다림)
+      accounts.stream()
+              .filter(a -> !a.isEmailVerified())
+              .filter(a -> !mailDispatcher.enqueueAndWait(accountService.signUpConfirmEmail(a)))
+              .forEach(a -> result.mailDropped++);
+    }
+    // 이제부터 이 email, nickName 은 가입할 때 "사용 중일 수도 있음" 으로 확인됨
+    accounts.forEach(signUpAvailability::add);
+
+    result.imported += accounts.size();
+    log.info("회원 가져오기 : {} 줄까지 처리 (추가 {}, 건너뜀 {}, 보내지 못한 메일 {})",
+             lines.get(lines.size() - 1).number, result.imported, result.skipped, result.mailDropped);
+  }
+
+  // 형식이 잘못된 줄이면 null
+  private AccountRecord read(Line line, AccountFileFormat format) {
+    AccountRecord record;
+    try {
+      record = format.read(line.text, objectMapper);
+    } catch (IllegalArgumentException e) {
+      log.warn("{} 번째 줄을 건너뜁니다 : {}", line.number, e.getMessage());
+      return null;
+    }
+    // 회원 가입 화면과 같은 규칙으로 확인함
+    SignUpForm form = new SignUpForm();
+    form.setEmail(record.getEmail());
+    form.setNickName(record.getNickName());
+    boolean valid = validator.validateProperty(form, "email").isEmpty()
+                    && validator.validateProperty(form, "nickName").isEmpty()
+                    && record.getPassword() != null && !record.getPassword().isEmpty()
+                    && !hasUnknownEncoderId(record.getPassword());
+    if (!valid) {
+      log.warn("{} 번째 줄을 건너뜁니다 : email, nickName, password 를 확인하세요", line.number);
+      return null;
+    }
+    // 설정 화면과 같은 규칙으로 확인함
+    Profile profile = new Profile();
+    profile.setBio(record.getBio());
+    profile.setUrl(record.getUrl());
+    profile.setOccupation(record.getOccupation());
+    profile.setLocation(record.getLocation());
+    Integer preferences = record.getNotificationPreferences();
+    // NotificationType 에 없는 bit 가 켜져 있으면 알림을 받는 회원을 찾을 때 빠짐 (NotificationType.preferencesWith)
+    if (!validator.validate(profile).isEmpty() || preferences != null && (preferences & ~NotificationType.ALL) != 0) {
+      log.warn("{} 번째 줄을 건너뜁니다 : 프로필, 알림 설정을 확인하세요", line.number);
+      return null;
+    }
+    return record;
+  }
+
+  // 이미 가입한 회원, 같은 batch 에서 먼저 나온 회원과 email 이나 nickName 이 같으면 건너뜀
+  private List<AccountRecord> withoutTaken(List<AccountRecord> records, Result result) {
+    if (records.isEmpty()) {
+      return records;
+    }
+    Set<String> emails = new HashSet<>();
+    Set<String> nickNames = new HashSet<>();
+    records.forEach(r -> {
+      emails.add(r.getEmail());
+      nickNames.add(r.getNickName());
+    });
+    Set<String> takenEmails = new HashSet<>();
+    Set<String> takenNickNames = new HashSet<>();
+    namedJdbcTemplate.query(TAKEN_SQL, Map.of("emails", emails, "nickNames", nickNames), rs -> {
+      takenEmails.add(rs.getString("email"));
+      takenNickNames.add(rs.getString("nick_name"));
+    });
+
+    List<AccountRecord> available = new ArrayList<>(records.size());
+    for (AccountRecord record : records) {
+      if (takenEmails.contains(record.getEmail()) || takenNickNames.contains(record.getNickName())) {
+        result.skipped++;
+        continue;
+      }
+      takenEmails.add(record.getEmail());
+      takenNickNames.add(record.getNickName());
+      available.add(record);
+    }
+    return available;
+  }
+
+  // DelegatingPasswordEncoder 가 encoding 한 값은 {id} 로 시작함
+  //  ㄴ 모르는 {id} 로 시작하는 줄은 read() 에서 건너뛰므로 여기서는 {...} 로 시작하는지만 확인함
+  private static boolean isEncoded(String password) {
+    return encoderId(password) != null;
+  }
+
+  // {id} 로 시작하는데 PasswordEncoder 가 모르는 id 이면 true
+  //  ㄴ 다른 시스템에서 가져온 {sha512}... 같은 값을 비밀번호 그대로 encoding 하면 그 회원은 로그인할 수 없음
+  private static boolean hasUnknownEncoderId(String password) {
+    String id = encoderId(password);
+    return id != null && !ENCODER_IDS.contains(id);
+  }
+
+  // {id} 의 id, {id} 로 시작하지 않으면 null
+  private static String encoderId(String password) {
+    int end = password.indexOf('}');
+    return password.startsWith("{") && end > 1 ? password.substring(1, end) : null;
+  }
+
+  private static Timestamp timestamp(LocalDateTime dateTime) {
+    return dateTime == null ? null : Timestamp.valueOf(dateTime);
+  }
+
+  private static long readCheckpoint(Path checkpoint) throws IOException {
+    if (!Files.exists(checkpoint)) {
+      return 0;
+    }
+    return Long.parseLong(Files.readString(checkpoint).trim());
+  }
+
+  // 쓰는 중에 멈춰도 checkpoint 가 깨지지 않도록 임시 파일에 쓰고 바꿈
+  private static void writeCheckpoint(Path checkpoint, long lineNumber) throws IOException {
+    Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+    Files.writeString(temp, String.valueOf(lineNumber));
+    Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  // sequence 에서 받은 id 범위 (Hibernate 의 pooled optimizer 와 같은 방식)
+  //  ㄴ sequence 값 hi 를 받으면 (hi - ID_ALLOCATION_SIZE, hi] 를 사용함
+  private class IdBlock {
+    private long next;
+    private long hi = -1;
+
+    long next() {
+      if (next > hi) {
+        hi = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+        next = Math.max(1, hi - Account.ID_ALLOCATION_SIZE + 1);
+      }
+      return next++;
+    }
+  }
+
+  private static final class Line {
+    private final long number;
+    private final String text;
+
+    private Line(long number, String text) {
+      this.number = number;
+      this.text = text;
+    }
+  }
+
+  @Getter
+  public static class Result {
+    private long imported;
+    private long skipped;
+    // --send-mail 일 때 MailDispatcher 가 멈춰서 queue 에 넣지 못한 인증 메일 수
+    private long mailDropped;
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.global.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 회원 가져오기/내보내기 파일의 한 줄 (AccountImporter, AccountExporter)
+//  - password : 입력한 비밀번호 또는 {bcrypt}... 처럼 encoding 된 값
+//                 ㄴ 내보낸 파일에는 encoding 된 값이 들어 있으므로 그대로 다시 가져올 수 있음
+//  - joinedAt : 인증한 회원만 있음, 인증한 회원인데 비어 있으면 가져온 시간으로 저장함
+//  - bio ~ profileImage : 프로필 (설정 화면과 같은 규칙으로 확인함)
+//                           ㄴ profileImage 는 ImageStore 의 URL 이므로 같은 ImageStore 를 쓰는 서버에서만 보임
+//  - notificationPreferences : 알림 설정 (Account.notificationPreferences), 비어 있으면 회원 가입할 때의 설정
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountRecord {
+
+  private String email;
+  private String nickName;
+  private String password;
+  private boolean emailVerified;
+  private LocalDateTime joinedAt;
+  private String bio;
+  private String url;
+  private String occupation;
+  private String location;
+  private String profileImage;
+  private Integer notificationPreferences;
+
+}
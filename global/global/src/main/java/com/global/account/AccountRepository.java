@@ -1,9 +1,20 @@
 package com.global.account;
 
+import com.global.config.CacheConfig;
 import com.global.domain.Account;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Transactional(readOnly=true)
 public interface AccountRepository extends JpaRepository<Account, Long> {
   boolean existsByEmail(String email);
@@ -12,4 +23,104 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
   Account findByEmail(String email);
   Account findByNickName(String nickName);
 
+  // MemberStatistics 가 서버 시작, reconcile 할 때만 사용함
+  long countByEmailVerifiedTrue();
+  long countByJoinedAtGreaterThanEqual(LocalDateTime joinedAt);
+
+  // 로그인할 때 email 과 nickName 을 한 번의 query 로 조회함
+  //  ㄴ email, nickName 모두 unique index 가 걸려 있음
+  //  ㄴ nickName 에는 @ 가 들어갈 수 없으므로 두 조건이 동시에 다른 회원과 일치하는 경우는 없음
+  //  ㄴ UserAccount 를 만드는 데 필요한 column 만 조회함
+  // 조회 결과는 CacheConfig.LOGIN_ACCOUNTS cache 에 보관함 (없는 회원은 보관하지 않음)
+  @Cacheable(cacheNames = CacheConfig.LOGIN_ACCOUNTS, unless = "#result == null")
+  @Query("select new com.global.account.LoginAccount(a.id, a.nickName, a.email, a.password, a.emailVerified, a.profileImage)"
+       + " from Account a where a.email = :emailOrNickName or a.nickName = :emailOrNickName")
+  LoginAccount findLoginAccount(@Param("emailOrNickName") String emailOrNickName);
+
+  // 프로필 화면에 보여주는 column 만 조회함
+  // 조회 결과는 CacheConfig.PUBLIC_PROFILES cache 에 보관함 (없는 회원은 보관하지 않음)
+  @Cacheable(cacheNames = CacheConfig.PUBLIC_PROFILES, unless = "#result == null")
+  @Query("select new com.global.account.PublicProfile(a.id, a.nickName, a.bio, a.url, a.occupation, a.location,"
+       + " a.profileImage, a.emailVerified, a.joinedAt) from Account a where a.nickName = :nickName")
+  PublicProfile findPublicProfile(@Param("nickName") String nickName);
+
+  // 검색 색인(ProfileSearch)에 넣을 프로필 : 가입, 인증, 프로필 수정 뒤에 한 명씩 조회함 (cache 하지 않음)
+  @Query("select new com.global.account.PublicProfile(a.id, a.nickName, a.bio, a.url, a.occupation, a.location,"
+       + " a.profileImage, a.emailVerified, a.joinedAt) from Account a where a.id = :id")
+  PublicProfile findPublicProfileById(@Param("id") Long id);
+
+  // 서버가 시작될 때 검색 색인(ProfileSearch)을 만듦
+  //  ㄴ Stream 은 Transaction 안에서 사용하고 close 해야 함
+  @Query("select new com.global.account.PublicProfile(a.id, a.nickName, a.bio, a.url, a.occupation, a.location,"
+       + " a.profileImage, a.emailVerified, a.joinedAt) from Account a order by a.id")
+  Stream<PublicProfile> streamPublicProfiles();
+
+  // 인증 메일로 회원 가입을 완료한 회원을 로그인시킬 때 사용함 (primary key 로 조회)
+  @Query("select new com.global.account.LoginAccount(a.id, a.nickName, a.email, a.password, a.emailVerified, a.profileImage)"
+       + " from Account a where a.id = :id")
+  LoginAccount findLoginAccountById(@Param("id") Long id);
+
+  // 인증 메일의 token 이 맞으면 entity 를 조회하지 않고 한 번의 update 로 회원 가입을 완료함
+  //  ㄴ primary key 로 찾고, nonce 가 최근에 보낸 메일의 것이고 아직 인증하지 않은 경우에만 바뀜
+  //  ㄴ return : 바뀐 row 수 (0 이면 다시 보낸 메일이 있거나 이미 사용한 token)
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Account a set a.emailVerified = true, a.joinedAt = :joinedAt, a.version = a.version + 1"
+       + " where a.id = :id and a.emailCheckToken = :nonce and a.emailVerified = false")
+  int completeSignUp(@Param("id") Long id, @Param("nonce") String nonce, @Param("joinedAt") LocalDateTime joinedAt);
+
+  // 프로필 수정 : entity 를 조회(merge)하지 않고 프로필 column 만 한 번의 update 로 바꿈
+  //  ㄴ version 이 form 을 열었을 때의 버전과 같을 때만 바뀌고, 버전을 1 늘림
+  //  ㄴ return : 바뀐 row 수 (0 이면 다른 곳에서 먼저 수정했음)
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Account a set a.bio = :bio, a.url = :url, a.occupation = :occupation, a.location = :location,"
+       + " a.profileImage = :profileImage, a.version = a.version + 1"
+       + " where a.id = :id and a.version = :version")
+  int updateProfile(@Param("id") Long id, @Param("version") Integer version,
+                    @Param("bio") String bio, @Param("url") String url, @Param("occupation") String occupation,
+                    @Param("location") String location, @Param("profileImage") String profileImage);
+
+  // 비밀번호 수정 : password column 만 바꿈 (version 은 updateProfile() 과 같음)
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Account a set a.password = :password, a.version = a.version + 1"
+       + " where a.id = :id and a.version = :version")
+  int updatePassword(@Param("id") Long id, @Param("version") Integer version, @Param("password") String password);
+
+  // 지금 버전 (primary key 로 조회함)
+  @Query("select a.version from Account a where a.id = :id")
+  Integer findVersionById(@Param("id") Long id);
+
+  // 회원 가입할 때 email, nickName 이 사용 중인지 한 번의 query 로 확인함 (SignUpAvailability)
+  //  ㄴ null 로 넘긴 조건은 어떤 회원과도 일치하지 않음
+  @Query("select a.email as email, a.nickName as nickName from Account a"
+       + " where a.email = :email or a.nickName = :nickName")
+  List<EmailAndNickName> findEmailAndNickName(@Param("email") String email, @Param("nickName") String nickName);
+
+  // 서버가 시작될 때 SignUpAvailability 의 Bloom filter 를 채움
+  //  ㄴ Stream 은 Transaction 안에서 사용하고 close 해야 함
+  @Query("select a.email as email, a.nickName as nickName from Account a")
+  Stream<EmailAndNickName> streamEmailAndNickNames();
+
+  // 알림 설정이 preferences 중 하나이고 인증을 마친 회원의 id, email 만 id 순서로 조회함
+  //  ㄴ NotificationType.preferencesWith() 로 알림을 받는 설정 값을 모두 넘김
+  //  ㄴ afterId : 앞에서 조회한 마지막 회원의 id (처음에는 0), Pageable 은 가져오는 개수(limit)로만 사용함
+  //  ㄴ Account entity 를 만들지 않으므로 회원이 많아도 id, email 만 메모리에 올라옴
+  @Query("select a.id as id, a.email as email from Account a"
+       + " where a.notificationPreferences in :preferences and a.emailVerified = true and a.id > :afterId"
+       + " order by a.id")
+  List<Subscriber> findSubscribers(@Param("preferences") Collection<Integer> preferences,
+                                   @Param("afterId") Long afterId, Pageable pageable);
+
+  interface Subscriber {
+    Long getId();
+    String getEmail();
+  }
+
+  interface EmailAndNickName {
+    String getEmail();
+    String getNickName();
+  }
+
 }
@@ -1,25 +1,35 @@
 package com.global.account;
 
+import com.global.config.CacheConfig;
 import com.global.domain.Account;
+import com.global.domain.NotificationType;
+import com.global.image.ProfileImageService;
+import com.global.mail.MailDispatcher;
 import com.global.settings.Profile;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.el.ELContext;
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 // AccountService 클래스는 @Service 에 의해서
@@ -28,15 +38,22 @@ import java.util.List;
 //     Spring Security 에 별도로 설정하지 않아도 됨
 //       ㄴ Spring 이 자동으로 이  Bean (AccountService) 을 사용함
 //                 ㄴ login, logout 모두 자동으로 동작함
+// UserDetailsPasswordService 도 상속하면 로그인에 성공했을 때
+// 예전 방식(strength)으로 저장된 비밀번호를 Spring Security 가 새 방식으로 다시 저장함
 // @Transactional : AccountService 클래스의 모든 method 의 작업이
 //                  Transaction 안에서 진행되도록 설정함
 @Service
 @Transactional
 @RequiredArgsConstructor
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
   private final AccountRepository accountRepository;
-  private final JavaMailSender javaMailSender;
+  private final MailDispatcher mailDispatcher;
   private final PasswordEncoder passwordEncoder;
+  private final CacheManager cacheManager;
+  private final ProfileImageService profileImageService;
+  private final SignUpAvailability signUpAvailability;
+  private final ApplicationEventPublisher eventPublisher;
+  private final EmailTokenSigner emailTokenSigner;
   // private final AuthenticationManager authenticationManager;
 
   
@@ -53,16 +70,29 @@ public class AccountService implements UserDetailsService {
       .email(signUpForm.getEmail())
       .nickName(signUpForm.getNickName())
       .password(passwordEncoder.encode(signUpForm.getPassword()))
-      .studyCreateByWeb(true)
-      .studyEnrollmentResultByWeb(true)
-      .studyUpdateByWeb(true)
+      // 모든 알림을 웹으로만 받음
+      .notificationPreferences(NotificationType.DEFAULT)
       .build();
 
     Account newAccount = accountRepository.save(account);
+    evictLoginCache(newAccount);
+    // 이제부터 이 email, nickName 은 가입할 때 "사용 중일 수도 있음" 으로 확인됨
+    signUpAvailability.add(newAccount);
+    // commit 된 뒤에 MemberStatistics 가 회원 수를 늘림
+    eventPublisher.publishEvent(new AccountCreatedEvent(newAccount.getId()));
     return newAccount;
   }
 
   public void sendSignUpConfirmEmail(Account newAccount) {
+    // 바로 보내지 않고 queue 에 넣음
+    //  ㄴ Transaction 이 commit 된 후에 MailDispatcher 가 보냄
+    mailDispatcher.enqueue(signUpConfirmEmail(newAccount));
+  }
+
+  // 인증 메일의 내용을 만듦
+  //  ㄴ AccountImporter 는 commit 한 뒤에 Transaction 밖에서 MailDispatcher.enqueueAndWait 로 넣음
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public SimpleMailMessage signUpConfirmEmail(Account newAccount) {
     SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
     // 토큰값에 해당하는 이메일 주소 받기
     simpleMailMessage.setTo(newAccount.getEmail());
@@ -70,17 +100,40 @@ public class AccountService implements UserDetailsService {
     simpleMailMessage.setSubject("회원 가입 인증");
     // 이메일 본문
     // simpleMailMessage.setText("/check-email-token?token=이메일보내기전에생성한토큰값&email=토큰값에해당하는이메일주소");
-    simpleMailMessage.setText("/check-email-token?token=" + newAccount.getEmailCheckToken()
-      + "&email=" + newAccount.getEmail());
-    javaMailSender.send(simpleMailMessage);
+    //  ㄴ token 은 emailCheckToken 에 서명한 값이므로 이메일 주소는 넣지 않음
+    simpleMailMessage.setText("/check-email-token?token=" + emailTokenSigner.sign(newAccount));
+    return simpleMailMessage;
+  }
+
+  // 인증 메일 다시 보내기
+  //  - nonce 와 발급 시각을 새로 만들어서 저장한 다음에 서명함 (Account.generateEmailCheckToken)
+  //      ㄴ 예전 메일의 token 은 사용할 수 없게 되고, 유효 기간도 지금부터 다시 시작함
+  //      ㄴ 예전 값으로 서명하면 가입하고 유효 기간(하루)이 지난 뒤에 다시 보낸 메일은 이미 만료되어 있음
+  //  - return : false 이면 1 시간 이내에 보낸 이력이 있어서 보내지 않음
+  public boolean resendSignUpConfirmEmail(Long accountId) {
+    Account account = accountRepository.findById(accountId)
+                                       .orElseThrow(() -> new IllegalStateException("회원이 없습니다 : " + accountId));
+    // 서버를 다시 시작해도 지켜지도록 DB 에 저장된 발급 시각으로 확인함
+    if (!account.canSendConfirmEmail()) {
+      return false;
+    }
+    account.generateEmailCheckToken();
+    sendSignUpConfirmEmail(account);
+    return true;
   }
 
   // password 를 encoding 하기 때문에 아래의 방법으로 로그인함
   public void login(Account account) {
+    login(new UserAccount(account));
+  }
+
+  private void login(UserAccount userAccount) {
+    // session 에 저장되는 principal 에는 비밀번호(encoding 된 값)도 남기지 않음
+    userAccount.eraseCredentials();
     UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
                                                         // account.getNickName(),
-                                                        new UserAccount(account),
-                                                        account.getPassword(),
+                                                        userAccount,
+                                                        null,
                                                         List.of(new SimpleGrantedAuthority("ROLE_USER"))
                                                       );
     // Spring 에서 제공하는 SecurityContextHolder 에서
@@ -93,18 +146,14 @@ public class AccountService implements UserDetailsService {
   @Transactional(readOnly = true)
   @Override
   public UserDetails loadUserByUsername(String emailOrNickName) throws UsernameNotFoundException {
-    // findByEmail() 로 email 로 로그인하는지 알아보기
-    Account account = accountRepository.findByEmail(emailOrNickName);
-    // email 로 로그인하는 것이 아니라면
-    // findByNickName() 로 nickName 으로 로그인하는지 알아보기
-    if(account == null){
-      account = accountRepository.findByNickName(emailOrNickName);
-    }
+    // email 이나 nickName 중 하나라도 일치하는 회원을 한 번에 조회함
+    //  ㄴ 조회 결과는 cache 에 보관되므로 같은 회원이 다시 로그인할 때는 DB 를 조회하지 않음
+    LoginAccount loginAccount = accountRepository.findLoginAccount(emailOrNickName);
 
-    // nickName 으로도 로그인하는 것이 아니라면
+    // email, nickName 모두 일치하지 않는다면
     // UsernameNotFoundException 예외를 발생시킴
     //   ㄴ email 또는 password 가 잘못되었다고 메세지를 return 함
-    if(account == null){
+    if(loginAccount == null){
       throw new UsernameNotFoundException(emailOrNickName);
     }
 
@@ -112,46 +161,101 @@ public class AccountService implements UserDetailsService {
     // ㄴ Principal 에 해당하는 객체를 넘김
     //      ㄴ Spring Security 가 제공하는 User 를 상속하는 UserAccount 객체
     //                              com.global.account 패키지에 만들어 놓았음
+    //  ㄴ 로그인이 끝나면 Spring Security 가 UserAccount 의 비밀번호를 지우므로
+    //     cache 에 있는 LoginAccount 로 매번 새 UserAccount 를 만듦
+    return new UserAccount(loginAccount);
+  }
+
+  // 인증 메일의 token 으로 회원 가입을 완료하고 로그인시킴
+  //  - 서명, 유효 기간은 DB 를 조회하기 전에 확인함 (위조되었거나 만료된 token 은 DB 까지 오지 않음)
+  //  - Account entity 를 조회하지 않고 primary key 로 한 번에 update 함
+  //  - return : 로그인한 회원, null 이면 잘못된 token
+  public LoginAccount completeSignUp(String token) {
+    EmailToken emailToken = emailTokenSigner.verify(token);
+    if (emailToken == null) {
+      return null;
+    }
+    LocalDateTime joinedAt = LocalDateTime.now();
+    if (accountRepository.completeSignUp(emailToken.getAccountId(), emailToken.getNonce(), joinedAt) == 0) {
+      return null;
+    }
+
+    LoginAccount loginAccount = accountRepository.findLoginAccountById(emailToken.getAccountId());
+    evictLoginCache(loginAccount.getEmail(), loginAccount.getNickName());
+    evictPublicProfile(loginAccount.getNickName());
+    eventPublisher.publishEvent(new AccountVerifiedEvent(loginAccount.getId(), joinedAt));
+    login(new UserAccount(loginAccount));
+    return loginAccount;
+  }
+
+  // 프로필 수정 form 에 채울 값
+  //  ㄴ Transaction 안에서 Account 를 조회해서 form 객체로 바꿈 (화면을 그릴 때는 DB 를 조회하지 않음)
+  @Transactional(readOnly = true)
+  public Profile getProfile(Long accountId) {
+    return accountRepository.findById(accountId)
+                            .map(Profile::new)
+                            .orElseThrow(() -> new IllegalStateException("회원이 없습니다 : " + accountId));
+  }
+
+  // 프로필 수정
+  //  - Account 를 조회하지 않고 프로필 column 만 한 번의 update 로 바꿈 (AccountRepository.updateProfile)
+  //  - profile.version : form 을 열었을 때의 버전
+  //      ㄴ 그 사이에 다른 탭(기기)에서 먼저 수정했으면 바꾸지 않고 OptimisticLockingFailureException 을 던짐
+  //  - userAccount : session 의 principal (id, nickName, email 만 사용함)
+  public void updateProfile(UserAccount userAccount, Profile profile) {
+    // 프로필 사진 업데이트 처리 : 이미지를 ImageStore 에 저장하고 URL 만 넣어줌
+    String profileImage = profileImageService.save(profile.getProfileImage());
+    int updated = accountRepository.updateProfile(userAccount.getAccountId(), profile.getVersion(),
+                                                  profile.getBio(), profile.getUrl(), profile.getOccupation(),
+                                                  profile.getLocation(), profileImage);
+    if (updated == 0) {
+      throw new OptimisticLockingFailureException("다른 곳에서 프로필을 먼저 수정했습니다 : " + userAccount.getUsername());
+    }
+    evictLoginCache(userAccount.getEmail(), userAccount.getUsername());
+    evictPublicProfile(userAccount.getUsername());
+    eventPublisher.publishEvent(new ProfileUpdatedEvent(userAccount.getAccountId()));
+    // session 에 저장된 principal 의 프로필 사진도 바뀌도록 다시 로그인 처리함
+    login(userAccount.withProfileImage(profileImage));
+  }
+
+  // 비밀번호 수정 (SettingsController 의 updatePassword() 에서 호출함)
+  //  - Account 를 조회하지 않고 password column 만 한 번의 update 로 바꿈 (AccountRepository.updatePassword)
+  //  - version : form 을 열었을 때의 버전 (프로필 수정과 같음)
+  //      ㄴ 그 사이에 다른 탭(기기)에서 먼저 수정했으면 바꾸지 않고 OptimisticLockingFailureException 을 던짐
+  public void updatePassword(UserAccount userAccount, Integer version, String newPassword) {
+    String encodedPassword = passwordEncoder.encode(newPassword);
+    if (accountRepository.updatePassword(userAccount.getAccountId(), version, encodedPassword) == 0) {
+      throw new OptimisticLockingFailureException("다른 곳에서 회원 정보를 먼저 수정했습니다 : " + userAccount.getUsername());
+    }
+    evictLoginCache(userAccount.getEmail(), userAccount.getUsername());
+  }
+
+  // 로그인에 성공했는데 PasswordEncoder.upgradeEncoding() 이 true 이면 Spring Security 가 호출함
+  //  ㄴ newPassword 는 방금 입력한 비밀번호를 새 strength 로 encoding 한 값임
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    // UserAccount 의 username 은 nickName 임
+    Account account = accountRepository.findByNickName(user.getUsername());
+    account.setPassword(newPassword);
+    evictLoginCache(account);
     return new UserAccount(account);
   }
 
-  //   - Entity 객체 변경은 반드시 Transaction 안에서 해야 함
-  //     ㄴ Transaction 종료 직전이나 필요한 시점에 변경 사항을 DB 에 반영할 수 있기 때문
-  // 데이터를 변경하는 작업을 하므로 @Transactional(readOnly = true) 로 설정하지 않음
-  public void completeSignUp(Account account) {
-    account.completeSignUp();
-    login(account);
-  }
-
-  public void updateProfile(Account account, Profile profile) {
-    // account 의 정보를 변경함
-    // account 객체 <-- 현재 로그인해 있는 회원의 정보를 저장한 객체
-    // profile 객체 <-- 변경한 내용(bio, url, occupation, location) 정보를 저장한 객체
-    // 변경한 내용을 저장한 profile 객체에서 bio, url, occupation, location 을 갖고 와서
-    // 현재 로그인한 회원의 정보를 저장하고 있는 account 객체의 bio, url, occupation, location 에 할당함
-    account.setBio(profile.getBio());
-    account.setUrl(profile.getUrl());
-    account.setOccupation(profile.getOccupation());
-    account.setLocation(profile.getLocation());
-
-    // 프로필 사진 업데이트 처리 : 이미지를 가져와서 넣어줌
-    account.setProfileImage(profile.getProfileImage());
-
-    // account 객체의 멤버변수 값이 변경된 것을 DB 에도 반영함
-    accountRepository.save(account);
-  }
-
-  // SettingsController 의 public String updatePassword() 메소드에서 호출함
-  public void updatePassword(Account account, String newPassword) {
-    // account 의 비밀번호를 새로운 비밀번호로 변경함
-    // SettingsController 의 public String updatePassword() 메소드에서 전달받은
-    // account 객체는 Detached 상태이지 Persistence 상태가 아님
-    // 변경이력이 취합되지 않아서, code 로 명시적으로 merge 해 주어야 함
-    // account.setPassword(newPassword); <-- encoding 되지 않은 상태로 저장됨
-    // encoding 해서 저장하기
-    account.setPassword(passwordEncoder.encode(newPassword));
-    // 명시적으로 merge 해 주어야 함
-    accountRepository.save(account);
+  // 회원 정보가 바뀌면 로그인 cache 에 남아 있는 예전 정보를 지움
+  //  ㄴ cache 는 email, nickName 두 가지 key 로 저장될 수 있으므로 둘 다 지움
+  //  ㄴ Transaction 이 commit 된 뒤에 지워짐 (CacheConfig)
+  private void evictLoginCache(Account account) {
+    evictLoginCache(account.getEmail(), account.getNickName());
+  }
+
+  private void evictLoginCache(String email, String nickName) {
+    Cache cache = cacheManager.getCache(CacheConfig.LOGIN_ACCOUNTS);
+    cache.evict(email);
+    cache.evict(nickName);
+  }
 
+  // 프로필 화면에 보이는 값(소개, 사진, 인증 여부 등)이 바뀌면 프로필 cache 에 남아 있는 예전 프로필을 지움
+  private void evictPublicProfile(String nickName) {
+    cacheManager.getCache(CacheConfig.PUBLIC_PROFILES).evict(nickName);
   }
 }
@@ -0,0 +1,14 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 인증 메일을 확인해서 가입이 끝났을 때 AccountService 가 발행하는 event
+@Getter
+@RequiredArgsConstructor
+public class AccountVerifiedEvent {
+  private final Long accountId;
+  private final LocalDateTime joinedAt;
+}
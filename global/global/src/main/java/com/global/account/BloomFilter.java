@@ -0,0 +1,84 @@
+package com.global.account;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+문자열이 "들어 있지 않다" 는 것을 DB 조회 없이 확인하기 위한 Bloom filter
+  - mightContain() 이 false 이면 절대로 add() 한 적이 없는 값임
+  - true 이면 add() 한 값일 수도 있고 아닐 수도 있음 (오탐률 : falsePositiveRate)
+  - 값을 지울 수는 없음 (지운 회원의 email 은 계속 "있을 수도 있음" 으로 나옴)
+  - bit 는 AtomicLongArray 에 저장하므로 lock 없이 여러 thread 에서 함께 사용할 수 있음
+*/
+class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  // expectedInsertions 개를 넣었을 때 오탐률이 falsePositiveRate 가 되도록 크기를 정함
+  BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (m + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  void add(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      setBit(index(h1, h2, i));
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = index(h1, h2, i);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // hash 두 개를 조합해서 hashCount 개의 위치를 만듦 (Kirsch-Mitzenmacher)
+  private long index(int h1, int h2, int i) {
+    long combined = h1 + (long) i * h2;
+    return (combined & Long.MAX_VALUE) % bitCount;
+  }
+
+  private void setBit(long index) {
+    int word = (int) (index >>> 6);
+    long mask = 1L << index;
+    long current;
+    do {
+      current = bits.get(word);
+      if ((current & mask) != 0) {
+        return;
+      }
+    } while (!bits.compareAndSet(word, current, current | mask));
+  }
+
+  // 64 bit FNV-1a 에 murmur3 의 마지막 섞기(fmix64) 단계를 더함
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb3fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+}
@@ -12,9 +12,11 @@ import java.lang.annotation.Target;
 
 // 아래의 설정으로
 // CurrentUser 객체는 @AuthenticationPrincipal 어노테이션의 적용을 받음
+//  ㄴ session 에는 UserAccount(accountId 등 몇 가지 값)만 저장되어 있으므로
+//     @CurrentUser Account 를 사용하는 Controller 에서만 accountId 로 Account 를 조회함
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
+@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : @accountRepository.findById(accountId).orElse(null)")
 public @interface CurrentUser {
 
 }
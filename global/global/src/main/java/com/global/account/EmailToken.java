@@ -0,0 +1,19 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/*
+인증 메일 token 에 들어 있는 값 (EmailTokenSigner 가 서명을 확인한 뒤에 만듦)
+  - nonce : 회원 가입할 때(또는 인증 메일을 다시 보낼 때) Account.emailCheckToken 에 저장한 값
+      ㄴ 인증 메일을 다시 보내면 nonce 가 바뀌므로 예전 메일의 token 은 사용할 수 없음
+*/
+@Getter
+@RequiredArgsConstructor
+public class EmailToken {
+  private final Long accountId;
+  private final Instant issuedAt;
+  private final String nonce;
+}
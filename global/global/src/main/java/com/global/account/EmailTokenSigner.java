@@ -0,0 +1,128 @@
+package com.global.account;
+
+import com.global.domain.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.UUID;
+
+/*
+인증 메일의 token 을 만들고 확인하는 클래스
+  - token = Base64URL( accountId(8) + 발급 시각(8) + nonce(16) + HMAC-SHA256(앞의 32 byte) )
+  - 서명(HMAC)과 유효 기간을 memory 에서 먼저 확인하므로
+    위조되었거나 만료된 token 은 DB 를 조회하지 않고 거절함
+  - 서명은 MessageDigest.isEqual() 로 비교함 (일치하는 byte 수와 관계없이 같은 시간이 걸림)
+  - secret 을 설정하지 않으면 local, test profile 에서만 서버가 시작할 때 만든 임시 값을 사용함
+      ㄴ 그 밖의 profile 에서는 서버가 시작되지 않음 (IllegalStateException)
+      ㄴ 임시 값은 재시작하면 바뀌고 서버마다 다르므로 예전 token 이나 다른 서버에서 보낸 token 은 사용할 수 없음
+      ㄴ 서버가 여러 대이면 모두 같은 secret 을 설정해야 함
+*/
+@Slf4j
+@Component
+public class EmailTokenSigner {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int PAYLOAD_LENGTH = Long.BYTES * 2 + 16;
+  private static final int MAC_LENGTH = 32;
+
+  private final SecretKeySpec key;
+  private final Duration validity;
+
+  @Autowired
+  public EmailTokenSigner(@Value("${app.email-token.secret:}") String secret,
+                          @Value("${app.email-token.validity:1d}") Duration validity,
+                          Environment environment) {
+    this(secret, validity, environment.acceptsProfiles(Profiles.of("local", "test")));
+  }
+
+  // temporarySecretAllowed : secret 이 비어 있을 때 임시 secret 을 사용해도 되는지 (local, test profile)
+  EmailTokenSigner(String secret, Duration validity, boolean temporarySecretAllowed) {
+    byte[] keyBytes;
+    if (secret.isBlank()) {
+      if (!temporarySecretAllowed) {
+        throw new IllegalStateException("app.email-token.secret 을 설정해야 합니다 (환경 변수 APP_EMAIL_TOKEN_SECRET)");
+      }
+      log.warn("app.email-token.secret 이 설정되지 않아서 임시 secret 을 사용합니다 (재시작하면 예전 인증 메일은 사용할 수 없음)");
+      keyBytes = new byte[32];
+      new SecureRandom().nextBytes(keyBytes);
+    } else {
+      keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+    }
+    this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    this.validity = validity;
+  }
+
+  // account 의 id, emailCheckTokenGeneratedAt(발급 시각), emailCheckToken(nonce) 으로 token 을 만듦
+  public String sign(Account account) {
+    UUID nonce = UUID.fromString(account.getEmailCheckToken());
+    Instant issuedAt = account.getEmailCheckTokenGeneratedAt().atZone(ZoneId.systemDefault()).toInstant();
+    ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_LENGTH + MAC_LENGTH)
+                                  .putLong(account.getId())
+                                  .putLong(issuedAt.toEpochMilli())
+                                  .putLong(nonce.getMostSignificantBits())
+                                  .putLong(nonce.getLeastSignificantBits());
+    buffer.put(mac(buffer.array()));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  // 서명이 맞고 유효 기간이 지나지 않았으면 token 의 값을 return 함
+  //  ㄴ null : 형식이 틀렸거나, 위조되었거나, 만료된 token
+  public EmailToken verify(String token) {
+    if (token == null) {
+      return null;
+    }
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(token);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (bytes.length != PAYLOAD_LENGTH + MAC_LENGTH) {
+      return null;
+    }
+
+    byte[] expected = mac(bytes);
+    byte[] actual = new byte[MAC_LENGTH];
+    System.arraycopy(bytes, PAYLOAD_LENGTH, actual, 0, MAC_LENGTH);
+    if (!MessageDigest.isEqual(expected, actual)) {
+      return null;
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    long accountId = buffer.getLong();
+    Instant issuedAt = Instant.ofEpochMilli(buffer.getLong());
+    UUID nonce = new UUID(buffer.getLong(), buffer.getLong());
+    if (issuedAt.plus(validity).isBefore(Instant.now())) {
+      return null;
+    }
+    return new EmailToken(accountId, issuedAt, nonce.toString());
+  }
+
+  // 앞의 PAYLOAD_LENGTH byte 에 대한 HMAC
+  private byte[] mac(byte[] bytes) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      mac.update(bytes, 0, PAYLOAD_LENGTH);
+      return mac.doFinal();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,20 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+로그인할 때 필요한 column 만 조회해서 담는 클래스
+  - AccountRepository.findLoginAccount() 에서 JPQL 생성자 표현식(select new ...)으로 만들어짐
+  - 값을 바꿀 수 없으므로(immutable) cache 에 넣어 두고 여러 요청이 함께 사용해도 안전함
+*/
+@Getter
+@RequiredArgsConstructor
+public class LoginAccount {
+  private final Long id;
+  private final String nickName;
+  private final String email;
+  private final String password;
+  private final boolean emailVerified;
+  private final String profileImage;
+}
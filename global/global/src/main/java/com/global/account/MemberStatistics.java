@@ -0,0 +1,91 @@
+package com.global.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+회원 수(전체, 인증 완료, 오늘 가입)를 memory 에 보관하는 클래스
+  - 인증 메일을 확인할 때마다 accountRepository.count() 로 테이블 전체를 세지 않고 바로 읽음
+  - 서버가 시작되면 DB 에서 한 번 세고,
+    그 다음부터는 AccountService 가 발행하는 event 로 1 씩 늘림
+      ㄴ @TransactionalEventListener : commit 된 뒤에만 늘림 (rollback 되면 늘리지 않음)
+  - 회원을 지우거나, 세는 중에 가입한 회원이 있으면 값이 조금 틀릴 수 있으므로
+    reconcile-interval 마다 DB 에서 다시 셈
+*/
+@Slf4j
+@Component
+public class MemberStatistics {
+
+  private final AccountRepository accountRepository;
+
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong verified = new AtomicLong();
+  // 날짜가 바뀌면 0 부터 다시 세야 하므로 날짜와 함께 보관함
+  private final AtomicReference<DailyCount> joinedToday = new AtomicReference<>(new DailyCount(LocalDate.now(), 0));
+
+  public MemberStatistics(AccountRepository accountRepository) {
+    this.accountRepository = accountRepository;
+  }
+
+  public long getTotal() {
+    return total.get();
+  }
+
+  public long getVerified() {
+    return verified.get();
+  }
+
+  public long getJoinedToday() {
+    DailyCount current = joinedToday.get();
+    return current.date.equals(LocalDate.now()) ? current.count : 0;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAccountCreated(AccountCreatedEvent event) {
+    total.incrementAndGet();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAccountVerified(AccountVerifiedEvent event) {
+    verified.incrementAndGet();
+    LocalDate joinedDate = event.getJoinedAt().toLocalDate();
+    joinedToday.updateAndGet(current -> current.date.equals(joinedDate)
+                                        ? new DailyCount(joinedDate, current.count + 1)
+                                        : current.date.isBefore(joinedDate) ? new DailyCount(joinedDate, 1) : current);
+  }
+
+  // 서버가 시작될 때, 그리고 reconcile-interval 마다 DB 에서 다시 셈
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${app.member-statistics.reconcile-interval:PT10M}",
+             initialDelayString = "${app.member-statistics.reconcile-interval:PT10M}")
+  public void reconcile() {
+    LocalDate today = LocalDate.now();
+    long totalCount = accountRepository.count();
+    long verifiedCount = accountRepository.countByEmailVerifiedTrue();
+    long joinedTodayCount = accountRepository.countByJoinedAtGreaterThanEqual(today.atStartOfDay());
+
+    total.set(totalCount);
+    verified.set(verifiedCount);
+    joinedToday.set(new DailyCount(today, joinedTodayCount));
+    log.debug("회원 수를 다시 셌습니다 : 전체 {}, 인증 {}, 오늘 가입 {}", totalCount, verifiedCount, joinedTodayCount);
+  }
+
+  private static final class DailyCount {
+    private final LocalDate date;
+    private final long count;
+
+    private DailyCount(LocalDate date, long count) {
+      this.date = date;
+      this.count = count;
+    }
+  }
+
+}
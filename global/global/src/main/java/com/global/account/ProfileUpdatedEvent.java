@@ -0,0 +1,11 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 프로필(소개, URL, 직업, 지역, 사진)을 수정했을 때 AccountService 가 발행하는 event
+@Getter
+@RequiredArgsConstructor
+public class ProfileUpdatedEvent {
+  private final Long accountId;
+}
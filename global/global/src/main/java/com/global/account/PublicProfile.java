@@ -0,0 +1,28 @@
+package com.global.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+프로필 화면(/profile/{nickName})에 보여주는 column 만 조회해서 담는 클래스
+  - AccountRepository.findPublicProfile() 에서 JPQL 생성자 표현식(select new ...)으로 만들어짐
+  - 비밀번호, email, 인증 token 등은 조회하지 않음
+  - profileImage 는 사진이 아니라 URL(/images/profile/{hash})만 갖고 있음
+  - 값을 바꿀 수 없으므로(immutable) CacheConfig.PUBLIC_PROFILES cache 에 넣어 두고 함께 사용함
+  - 검색 색인(ProfileSearch)에도 이 객체를 그대로 넣어 두고 검색 결과로 보여줌
+*/
+@Getter
+@RequiredArgsConstructor
+public class PublicProfile {
+  private final Long id;
+  private final String nickName;
+  private final String bio;
+  private final String url;
+  private final String occupation;
+  private final String location;
+  private final String profileImage;
+  private final boolean emailVerified;
+  private final LocalDateTime joinedAt;
+}
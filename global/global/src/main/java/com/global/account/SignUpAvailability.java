@@ -0,0 +1,124 @@
+package com.global.account;
+
+import com.global.domain.Account;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/*
+회원 가입할 때 email, nickName 이 이미 사용 중인지 확인하는 클래스
+  - 가입한 회원의 email, nickName(소문자)을 Bloom filter 에 넣어 둠
+      ㄴ 서버가 시작되면 DB 에 있는 회원을 모두 넣고, 새로 가입할 때마다 추가함
+  - check() : 입력할 때마다 하는 확인 (화면에 보여주는 안내용)
+      ㄴ Bloom filter 가 "없음" 이라고 하면 DB 를 조회하지 않음 (처음 쓰는 email, nickName 은 대부분 여기서 끝남)
+      ㄴ "있을 수도 있음" 이면 email, nickName 을 한 번의 query 로 함께 조회함
+      ㄴ 서버가 시작되고 Bloom filter 를 다 채우기 전에는 항상 DB 를 조회함
+  - verify() : 가입(submit)할 때 하는 확인, Bloom filter 와 상관없이 항상 DB 를 조회함
+      ㄴ Bloom filter 에는 이 서버에서 가입한 회원만 추가되므로
+         다른 서버에서 가입했거나 일괄 등록(AccountImporter)한 회원은 재시작 전까지 "없음" 으로 나옴
+*/
+@Slf4j
+@Component
+public class SignUpAvailability {
+
+  private final AccountRepository accountRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final BloomFilter bloomFilter;
+  private volatile boolean loaded;
+
+  public SignUpAvailability(AccountRepository accountRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.sign-up.bloom-filter.expected-insertions:100000}") long expectedInsertions,
+                            @Value("${app.sign-up.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.accountRepository = accountRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    // email 과 nickName 을 하나의 filter 에 넣으므로 2 배로 잡음
+    this.bloomFilter = new BloomFilter(expectedInsertions * 2, falsePositiveRate);
+  }
+
+  // 가입할 때의 사용 가능 여부 (true : 사용할 수 있음)
+  //  ㄴ Bloom filter 를 사용하지 않고 email, nickName 을 한 번의 query 로 조회함
+  //  ㄴ null 로 넘긴 값은 확인하지 않고 true 로 둠
+  public Result verify(String email, String nickName) {
+    if (email == null && nickName == null) {
+      return new Result(true, true);
+    }
+    return query(email, nickName);
+  }
+
+  // 입력할 때의 사용 가능 여부 (true : 사용할 수 있음)
+  public Result check(String email, String nickName) {
+    boolean emailMaybeTaken = email != null && mightBeTaken(emailKey(email));
+    boolean nickNameMaybeTaken = nickName != null && mightBeTaken(nickNameKey(nickName));
+    if (!emailMaybeTaken && !nickNameMaybeTaken) {
+      return new Result(true, true);
+    }
+    return query(emailMaybeTaken ? email : null, nickNameMaybeTaken ? nickName : null);
+  }
+
+  // 둘 중 확인할 것(null 이 아닌 것)만 조건에 넣어서 한 번에 조회함
+  private Result query(String email, String nickName) {
+    List<AccountRepository.EmailAndNickName> found = accountRepository.findEmailAndNickName(email, nickName);
+    boolean emailTaken = email != null && found.stream().anyMatch(a -> email.equals(a.getEmail()));
+    boolean nickNameTaken = nickName != null && found.stream().anyMatch(a -> nickName.equals(a.getNickName()));
+    return new Result(!emailTaken, !nickNameTaken);
+  }
+
+  // 회원이 새로 가입하면 AccountService 에서 호출함
+  public void add(Account account) {
+    bloomFilter.add(emailKey(account.getEmail()));
+    bloomFilter.add(nickNameKey(account.getNickName()));
+  }
+
+  // 서버가 시작되면 가입한 회원의 email, nickName 을 모두 넣음
+  //  ㄴ Stream 으로 조회하므로 회원이 많아도 한꺼번에 메모리에 올리지 않음
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    LongAdder count = new LongAdder();
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<AccountRepository.EmailAndNickName> accounts = accountRepository.streamEmailAndNickNames()) {
+        accounts.forEach(a -> {
+          bloomFilter.add(emailKey(a.getEmail()));
+          bloomFilter.add(nickNameKey(a.getNickName()));
+          count.increment();
+        });
+      }
+    });
+    loaded = true;
+    log.info("가입 확인용 Bloom filter 에 회원 {} 명을 넣었습니다", count.sum());
+  }
+
+  private boolean mightBeTaken(String key) {
+    return !loaded || bloomFilter.mightContain(key);
+  }
+
+  // email 과 nickName 이 같은 문자열이어도 구분되도록 앞에 붙임
+  private static String emailKey(String email) {
+    return "e:" + email.toLowerCase(Locale.ROOT);
+  }
+
+  private static String nickNameKey(String nickName) {
+    return "n:" + nickName.toLowerCase(Locale.ROOT);
+  }
+
+  // JSON 으로 보낼 때 {"email":true,"nickName":false} 형식이 됨
+  @Getter
+  @AllArgsConstructor
+  public static class Result {
+    private final boolean email;
+    private final boolean nickName;
+  }
+
+}
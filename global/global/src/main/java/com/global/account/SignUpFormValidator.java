@@ -9,9 +9,10 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class SignUpFormValidator implements Validator {
 
-  // DB 를 조회해서 email 이나 nickname 이 중복되는지 검사하려면
-  // AccountRepository 가 있어야 함
-  private final AccountRepository accountRepository;
+  // email 이나 nickname 이 중복되는지 검사하려면
+  // SignUpAvailability 가 있어야 함
+  //  ㄴ 가입할 때는 email, nickname 을 항상 DB 에서 한 번에 조회함
+  private final SignUpAvailability signUpAvailability;
 
   @Override
   public boolean supports(Class<?> clazz) {
@@ -23,14 +24,15 @@ public class SignUpFormValidator implements Validator {
   // Object target : form 에서 전달된 객체
   @Override
   public void validate(Object target, Errors errors) {
-    // DB를 조회해서 email 이나 nickname 이 중복되는지 검사하기
+    // email 이나 nickname 이 중복되는지 검사하기
     SignUpForm signUpForm = (SignUpForm)target;
-    if(accountRepository.existsByEmail(signUpForm.getEmail())){
+    SignUpAvailability.Result availability = signUpAvailability.verify(signUpForm.getEmail(), signUpForm.getNickName());
+    if(!availability.isEmail()){
       errors.rejectValue("email", "invalid.email",
                           new Object[]{signUpForm.getEmail()},
                           "이미 사용 중인 이메일입니다");
     }
-    if(accountRepository.existsByNickName(signUpForm.getNickName())){
+    if(!availability.isNickName()){
       errors.rejectValue("nickName", "invalid.nickname",
                          new Object[]{signUpForm.getNickName()},
                         "이미 사용 중인 닉네임입니다");
@@ -12,15 +12,43 @@ Spring Security 에서 제공하는 user 정보와
 우리가 만든 domain 에서 다루는 user 정보 사이에서
 adapter 역할을 하는 클래스
   ㄴ UserAccount : Principal 객체로 사용함
+  ㄴ HTTP session 에 저장되므로 Account entity 전체가 아니라
+     화면에 필요한 값(id, nickName, email, 인증 여부, 프로필 사진 URL)만 갖고 있음
+  ㄴ Account entity 가 필요한 Controller 는 @CurrentUser 로 받아옴
+     (그때 accountId 로 DB 에서 조회함)
 */
 @Getter
 public class UserAccount extends User {
-  private Account account;
+
+  private final Long accountId;
+  private final String email;
+  private final boolean emailVerified;
+  private final String profileImage;
+
+  public UserAccount(LoginAccount loginAccount){
+    this(loginAccount.getId(), loginAccount.getNickName(), loginAccount.getPassword(),
+         loginAccount.getEmail(), loginAccount.isEmailVerified(), loginAccount.getProfileImage());
+  }
+
   public UserAccount(Account account){
-    super(account.getNickName(),
-          account.getPassword(),
+    this(account.getId(), account.getNickName(), account.getPassword(),
+         account.getEmail(), account.isEmailVerified(), account.getProfileImage());
+  }
+
+  private UserAccount(Long accountId, String nickName, String password,
+                      String email, boolean emailVerified, String profileImage){
+    super(nickName,
+          password,
           List.of(new SimpleGrantedAuthority("ROLE_USER")));
-    this.account = account;
+    this.accountId = accountId;
+    this.email = email;
+    this.emailVerified = emailVerified;
+    this.profileImage = profileImage;
+  }
+
+  // 프로필 사진만 바꾼 principal (프로필을 수정한 뒤에 다시 로그인할 때 사용함)
+  public UserAccount withProfileImage(String profileImage){
+    return new UserAccount(accountId, getUsername(), "", email, emailVerified, profileImage);
   }
 
 }
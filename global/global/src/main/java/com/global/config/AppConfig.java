@@ -1,18 +1,95 @@
 package com.global.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.LdapShaPasswordEncoder;
+import org.springframework.security.crypto.password.Md4PasswordEncoder;
+import org.springframework.security.crypto.password.MessageDigestPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.StandardPasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// @EnableScheduling : @Scheduled 가 붙은 method 를 주기적으로 실행함
+@Slf4j
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+  private static final String BCRYPT = "bcrypt";
+
   // PasswordEncoder 객체를 반환하는 메소드
+  //  - 저장되는 값은 예전과 같이 {bcrypt}... 형식임
+  //  - {noop}, {pbkdf2} 등 Spring Security 의 기본 형식으로 저장된 비밀번호도 그대로 확인할 수 있음 (passwordEncoders)
+  //      ㄴ 로그인에 성공하면 {bcrypt} 로 다시 저장됨
+  //  - bcrypt 의 strength(반복 횟수 2^strength)는 서버가 시작할 때
+  //    encoding 한 번에 target-latency 정도 걸리도록 정함
+  //      ㄴ 예전 strength 로 저장된 비밀번호는 로그인에 성공하면 새 strength 로 다시 저장됨
+  //         (AccountService.updatePassword(UserDetails, String))
+  //  - 계산은 BoundedPasswordEncoder 의 thread 에서 실행됨
   @Bean
-  public PasswordEncoder passwordEncoder(){
-    // bcrypt encoder 를 사용하게 됨
-    return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+  public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                         @Value("${app.password.target-latency:100ms}") Duration targetLatency,
+                                         @Value("${app.password.min-strength:10}") int minStrength,
+                                         @Value("${app.password.max-strength:14}") int maxStrength,
+                                         @Value("${app.password.threads:0}") int threads,
+                                         @Value("${app.password.queue-capacity:100}") int queueCapacity,
+                                         @Value("${app.password.timeout:5s}") Duration timeout){
+    int strength = calibrateStrength(targetLatency, minStrength, maxStrength);
+    log.info("bcrypt strength : {}", strength);
+    PasswordEncoder delegate = new DelegatingPasswordEncoder(BCRYPT, passwordEncoders(strength));
+    // threads 를 지정하지 않으면 CPU 개수만큼 사용함
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    return new BoundedPasswordEncoder(delegate, meterRegistry, poolSize, queueCapacity, timeout);
+  }
+
+  // {id} 별 PasswordEncoder
+  //  ㄴ PasswordEncoderFactories.createDelegatingPasswordEncoder() 와 같은 목록에서 bcrypt 의 strength 만 바꿈
+  @SuppressWarnings("deprecation")
+  public static Map<String, PasswordEncoder> passwordEncoders(int bcryptStrength) {
+    Map<String, PasswordEncoder> encoders = new HashMap<>();
+    encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+    encoders.put("ldap", new LdapShaPasswordEncoder());
+    encoders.put("MD4", new Md4PasswordEncoder());
+    encoders.put("MD5", new MessageDigestPasswordEncoder("MD5"));
+    encoders.put("noop", NoOpPasswordEncoder.getInstance());
+    encoders.put("pbkdf2", new Pbkdf2PasswordEncoder());
+    encoders.put("scrypt", new SCryptPasswordEncoder());
+    encoders.put("SHA-1", new MessageDigestPasswordEncoder("SHA-1"));
+    encoders.put("SHA-256", new MessageDigestPasswordEncoder("SHA-256"));
+    encoders.put("sha256", new StandardPasswordEncoder());
+    encoders.put("argon2", new Argon2PasswordEncoder());
+    return encoders;
+  }
+
+  // strength 가 1 증가하면 걸리는 시간이 2 배가 되므로
+  // minStrength 로 걸리는 시간을 재서 target 을 넘지 않는 가장 큰 strength 를 고름
+  static int calibrateStrength(Duration target, int minStrength, int maxStrength) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+    // 처음 실행할 때는 class loading, JIT 때문에 느리므로 한 번 버림
+    encoder.encode("calibration");
+    long start = System.nanoTime();
+    encoder.encode("calibration");
+    long elapsed = Math.max(1, System.nanoTime() - start);
+
+    int strength = minStrength;
+    while (strength < maxStrength && elapsed * 2 <= target.toNanos()) {
+      elapsed *= 2;
+      strength++;
+    }
+    return strength;
   }
 
 }
@@ -0,0 +1,65 @@
+package com.global.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.regex.Pattern;
+
+/*
+npm run build 로 만든 static/assets 의 CSS, JS, font 를 보내는 설정 (build.js)
+  - /assets/vendor.css 처럼 쓴 URL 을 /assets/vendor-{md5}.css 로 바꿔서 그림 (VersionResourceResolver)
+      ㄴ template 에서 th:href="@{/assets/vendor.css}" 로 써야 ResourceUrlEncodingFilter 가 바꿈
+      ㄴ md5 는 처음 요청할 때 한 번만 계산함 (resourceChain(true) : 찾은 결과를 cache 에 보관함)
+  - 미리 압축해 둔 .br, .gz 파일을 Accept-Encoding 에 맞게 보냄 (EncodedResourceResolver)
+  - md5 가 붙은 URL 은 내용이 바뀌면 URL 도 바뀌므로 1 년 동안 다시 확인하지 않도록 함 (immutable)
+      ㄴ md5 가 없는 URL(CSS 에서 부르는 font 등)은 매번 Last-Modified 로 확인함
+  - Spring Security 는 /assets/** 를 확인하지 않음 (SecurityConfig)
+*/
+@Configuration
+public class AssetConfig implements WebMvcConfigurer {
+
+  private static final String ASSETS = "/assets/**";
+  private static final Pattern VERSIONED = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+  private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler(ASSETS)
+            .addResourceLocations("classpath:/static/assets/")
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // Spring 5.3 의 CacheControl 은 immutable 을 만들 수 없으므로 header 를 직접 씀
+    //  ㄴ resource handler 에 cacheControl 을 설정하지 않으면 이 header 를 덮어쓰지 않음
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean versioned = VERSIONED.matcher(request.getRequestURI()).find();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : "no-cache");
+        return true;
+      }
+    }).addPathPatterns(ASSETS);
+  }
+
+  // th:href, th:src 의 @{...} 로 만든 URL 을 md5 가 붙은 URL 로 바꿈
+  @Bean
+  public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+    return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+  }
+
+}
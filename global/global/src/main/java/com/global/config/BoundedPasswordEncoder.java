@@ -0,0 +1,122 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+비밀번호 encoding(회원 가입, 비밀번호 변경)과 비교(로그인)를
+정해진 개수의 thread 에서만 실행하는 PasswordEncoder
+  - bcrypt 는 일부러 느리게(CPU 를 많이 사용하도록) 만든 algorithm 이라
+    로그인이 몰리면 Tomcat 의 요청 thread 가 모두 bcrypt 계산에 묶이게 됨
+  - 동시에 계산하는 개수를 threads 개로 제한하고,
+    기다리는 작업이 queueCapacity 개를 넘거나 timeout 안에 끝나지 않으면 거절함 (PasswordEncoderBusyException)
+      ㄴ 로그인이면 로그인 실패 화면으로 이동함
+      ㄴ 회원 가입, 비밀번호 변경이면 form 에 error 를 보여줌
+  - 요청 thread 는 결과가 나올 때까지(최대 timeout) 기다림
+      ㄴ 요청 thread 를 풀어 주는 것이 아니라, CPU 를 쓰는 bcrypt 계산이 한꺼번에 몰리지 않게 하고
+         감당할 수 없는 요청은 기다리게 하지 않고 바로 거절하는 것임
+  - 작업 시간은 /actuator/metrics/password.encode (password.matches) 에서 볼 수 있음
+*/
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejectedCounter;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry,
+                                int threads, int queueCapacity, Duration timeout) {
+    this.delegate = delegate;
+    this.timeout = timeout;
+    AtomicInteger sequence = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                           new ArrayBlockingQueue<>(queueCapacity),
+                                           runnable -> {
+                                             Thread thread = new Thread(runnable, "password-" + sequence.incrementAndGet());
+                                             thread.setDaemon(true);
+                                             return thread;
+                                           });
+
+    Gauge.builder("password.queue.size", executor, e -> e.getQueue().size())
+         .description("계산을 기다리는 비밀번호 작업 수")
+         .register(meterRegistry);
+    this.encodeTimer = meterRegistry.timer("password.encode");
+    this.matchesTimer = meterRegistry.timer("password.matches");
+    this.rejectedCounter = meterRegistry.counter("password.rejected");
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(encodeTimer, () -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  // 비밀번호를 계산하지 않고 저장된 값의 형식만 확인하므로 바로 실행함
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  // @Bean 으로 등록하면 application 이 종료될 때 Spring 이 호출함
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T submit(Timer timer, Callable<T> task) {
+    Future<T> future;
+    try {
+      // 기다리는 시간까지 포함해서 측정함
+      long start = System.nanoTime();
+      future = executor.submit(() -> {
+        try {
+          return task.call();
+        } finally {
+          timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      rejectedCounter.increment();
+      throw new PasswordEncoderBusyException(e);
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejectedCounter.increment();
+      throw new PasswordEncoderBusyException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new AuthenticationServiceException("비밀번호 확인이 중단되었습니다", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+}
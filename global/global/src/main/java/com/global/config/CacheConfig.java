@@ -0,0 +1,57 @@
+package com.global.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// 자주 조회되지만 잘 바뀌지 않는 data 를 메모리에 보관하는 설정
+//  - Caffeine 을 사용해서 cache 마다 최대 개수(size)와 유효 시간(TTL)을 지정함
+//  - 여기에 등록하지 않은 이름의 cache 는 사용할 수 없음 (오타로 cache 가 새로 생기는 것을 막음)
+//  - Transaction 안에서 지우거나(evict) 넣으면(put) commit 된 뒤에 반영됨 (TransactionAwareCacheManagerProxy)
+//      ㄴ commit 전에 지우면 다른 요청이 아직 commit 되지 않은 예전 값을 다시 cache 에 넣을 수 있음
+//      ㄴ rollback 되면 cache 도 바뀌지 않음
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  // 로그인(email 또는 nickName) 으로 조회한 Account 를 보관하는 cache
+  //  ㄴ AccountRepository.findLoginAccount() 의 결과(LoginAccount)가 저장됨
+  public static final String LOGIN_ACCOUNTS = "loginAccounts";
+
+  // nickName 으로 조회한 프로필(PublicProfile)을 보관하는 cache
+  //  ㄴ AccountRepository.findPublicProfile() 의 결과가 저장됨
+  //  ㄴ 프로필을 수정하면 AccountService 가 지움
+  public static final String PUBLIC_PROFILES = "publicProfiles";
+
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${app.cache.login-accounts.max-size:10000}") long loginAccountsMaxSize,
+      @Value("${app.cache.login-accounts.ttl:10m}") Duration loginAccountsTtl,
+      @Value("${app.cache.public-profiles.max-size:10000}") long publicProfilesMaxSize,
+      @Value("${app.cache.public-profiles.ttl:1m}") Duration publicProfilesTtl) {
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(List.of(
+      new CaffeineCache(LOGIN_ACCOUNTS, Caffeine.newBuilder()
+                                                .maximumSize(loginAccountsMaxSize)
+                                                .expireAfterWrite(loginAccountsTtl)
+                                                .build()),
+      new CaffeineCache(PUBLIC_PROFILES, Caffeine.newBuilder()
+                                                 .maximumSize(publicProfilesMaxSize)
+                                                 .expireAfterWrite(publicProfilesTtl)
+                                                 .build())
+    ));
+    // Bean 으로 등록되는 것은 proxy 이므로 cache 는 여기서 직접 만듦
+    cacheManager.initializeCaches();
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+}
@@ -0,0 +1,37 @@
+package com.global.config;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+CachingTokenRepository 의 cache 를 사용하는 자동 로그인(remember-me) 처리
+  - Spring Security 는 cookie 의 token 이 저장된 token 과 다르면
+    token 도용으로 판단하고 그 회원의 token 을 모두 지움 (CookieTheftException)
+  - 다른 서버에서 token 이 바뀌었으면 이 서버의 cache 에는 예전 token 이 남아 있으므로
+    비교하기 전에 cache 의 token 이 cookie 와 다르면 지우고 DB 의 token 과 비교하게 함
+*/
+public class CachingRememberMeServices extends PersistentTokenBasedRememberMeServices {
+
+  private final CachingTokenRepository tokenRepository;
+
+  public CachingRememberMeServices(String key, UserDetailsService userDetailsService,
+                                   CachingTokenRepository tokenRepository) {
+    super(key, userDetailsService, tokenRepository);
+    this.tokenRepository = tokenRepository;
+  }
+
+  // cookieTokens : [series, token]
+  @Override
+  protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request,
+                                               HttpServletResponse response) {
+    if (cookieTokens.length == 2) {
+      tokenRepository.evictIfStale(cookieTokens[0], cookieTokens[1]);
+    }
+    return super.processAutoLoginCookie(cookieTokens, request, response);
+  }
+
+}
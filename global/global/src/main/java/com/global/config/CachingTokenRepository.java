@@ -0,0 +1,116 @@
+package com.global.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+
+/*
+remember-me(로그인 유지) token 을 persistent_logins 테이블에 저장하는 클래스
+  - JdbcTokenRepositoryImpl 을 상속해서 아래의 기능을 추가함
+  - series → token 을 memory(Caffeine)에 보관함
+      ㄴ 다시 방문한 회원이 자동 로그인할 때 DB 를 조회하지 않음
+  - 자동 로그인할 때마다 바뀌는 token 은 바로 DB 에 저장하고, 저장한 값만 cache 에 넣음
+      ㄴ 서버가 재시작되거나 다른 서버로 요청이 가도 DB 에는 항상 마지막 token 이 있음
+  - 다른 서버에서 token 이 바뀌었으면 이 서버의 cache 에는 예전 token 이 남아 있음
+      ㄴ cookie 의 token 과 cache 의 token 이 다르면 DB 에서 다시 조회함 (CachingRememberMeServices)
+  - 유효 기간(token-validity)이 지난 token 은 purge-interval 마다 지움
+*/
+@Slf4j
+@Component
+public class CachingTokenRepository extends JdbcTokenRepositoryImpl {
+
+  private static final String PURGE_SQL =
+    "delete from persistent_logins where last_used < ?";
+
+  private final Cache<String, PersistentRememberMeToken> tokens;
+  private final Duration tokenValidity;
+
+  public CachingTokenRepository(DataSource dataSource,
+                                @Value("${app.remember-me.cache-size:10000}") long cacheSize,
+                                @Value("${app.remember-me.token-validity:14d}") Duration tokenValidity) {
+    setDataSource(dataSource);
+    this.tokenValidity = tokenValidity;
+    this.tokens = Caffeine.newBuilder()
+                          .maximumSize(cacheSize)
+                          .expireAfterAccess(tokenValidity)
+                          .build();
+  }
+
+  public Duration getTokenValidity() {
+    return tokenValidity;
+  }
+
+  @Override
+  public void createNewToken(PersistentRememberMeToken token) {
+    super.createNewToken(token);
+    tokens.put(token.getSeries(), token);
+  }
+
+  // token 을 먼저 DB 에 저장한 다음에 cache 를 바꿈
+  //  ㄴ 저장하다가 실패하면 cache 에도 예전 token 이 그대로 남음
+  @Override
+  public void updateToken(String series, String tokenValue, Date lastUsed) {
+    super.updateToken(series, tokenValue, lastUsed);
+    PersistentRememberMeToken cached = tokens.getIfPresent(series);
+    if (cached != null) {
+      tokens.put(series, new PersistentRememberMeToken(cached.getUsername(), series, tokenValue, lastUsed));
+    }
+  }
+
+  // cookie 로 받은 token 이 cache 의 token 과 다르면 cache 에서 지움
+  //  ㄴ 다음 getTokenForSeries() 는 DB 를 조회하므로, 다른 서버에서 바뀐 token 을 도용으로 판단하지 않음
+  //  ㄴ DB 에서도 다르면 그때는 Spring Security 가 token 도용으로 판단함
+  public void evictIfStale(String series, String presentedToken) {
+    PersistentRememberMeToken cached = tokens.getIfPresent(series);
+    if (cached != null && !cached.getTokenValue().equals(presentedToken)) {
+      tokens.asMap().remove(series, cached);
+    }
+  }
+
+  @Override
+  public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+    PersistentRememberMeToken cached = tokens.getIfPresent(seriesId);
+    if (cached != null) {
+      return cached;
+    }
+    // tokens.get(seriesId, loader) 는 loader(DB 조회)를 ConcurrentHashMap 의 lock(synchronized) 안에서 실행하므로
+    // virtual thread 가 DB 를 기다리는 동안 carrier thread 가 묶임 → lock 밖에서 조회하고 넣음
+    //  ㄴ JdbcTokenRepositoryImpl 은 찾지 못하면 null 을 return 함 (null 은 cache 에 보관하지 않음)
+    PersistentRememberMeToken loaded = super.getTokenForSeries(seriesId);
+    if (loaded == null) {
+      return null;
+    }
+    PersistentRememberMeToken existing = tokens.asMap().putIfAbsent(seriesId, loaded);
+    return existing != null ? existing : loaded;
+  }
+
+  @Override
+  public void removeUserTokens(String username) {
+    tokens.asMap().values().removeIf(token -> token.getUsername().equals(username));
+    super.removeUserTokens(username);
+  }
+
+  // 유효 기간이 지난 token 은 자동 로그인에 사용할 수 없으므로 지움
+  //  ㄴ username, last_used 에 index 가 걸려 있음 (PersistentLogins)
+  @Scheduled(fixedDelayString = "${app.remember-me.purge-interval:PT1H}")
+  public int purgeExpired() {
+    Date cutoff = new Date(System.currentTimeMillis() - tokenValidity.toMillis());
+    tokens.asMap().values().removeIf(token -> token.getDate().before(cutoff));
+    int purged = getJdbcTemplate().update(PURGE_SQL, new Timestamp(cutoff.getTime()));
+    if (purged > 0) {
+      log.info("만료된 remember-me token {} 개 삭제", purged);
+    }
+    return purged;
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.global.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.global.account.UserAccount;
+import com.global.notification.UnreadNotificationCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+
+/*
+모든 화면에 들어가는 fragment(fragments.html 의 main-nav)를 그린 결과(HTML)를 보관하는 클래스
+  - 화면마다 main-nav 를 다시 그리지 않고 보관한 HTML 을 그대로 넣음
+      ㄴ fragments.html :: cached-main-nav 에서 ${@fragmentCache.mainNav(#request, #response)} 로 사용함
+  - main-nav 의 내용은 로그인한 회원의 nickName, 프로필 사진, 로그아웃 form 의 CSRF token,
+    읽지 않은 알림 수로만 바뀌므로 이 값들을 key(principal version)로 사용함
+      ㄴ 프로필 사진을 바꾸거나 다시 로그인하거나 알림이 오면 key 가 바뀌므로 따로 지우지 않아도 됨
+      ㄴ 읽지 않은 알림 수는 UnreadNotificationCounter 의 memory 에서 읽음 (DB 를 조회하지 않음)
+      ㄴ 로그인하지 않은 사용자는 모두 같은 main-nav 를 봄
+  - 오래 사용하지 않은 key 는 ttl 이 지나면 지워짐
+*/
+@Component
+public class FragmentCache {
+
+  private static final String ANONYMOUS = "anonymous";
+
+  private final SpringTemplateEngine templateEngine;
+  private final UnreadNotificationCounter unreadNotificationCounter;
+  private final Cache<String, String> mainNavs;
+
+  public FragmentCache(SpringTemplateEngine templateEngine,
+                       UnreadNotificationCounter unreadNotificationCounter,
+                       @Value("${app.cache.fragments.max-size:10000}") long maxSize,
+                       @Value("${app.cache.fragments.ttl:30m}") Duration ttl) {
+    this.templateEngine = templateEngine;
+    this.unreadNotificationCounter = unreadNotificationCounter;
+    this.mainNavs = Caffeine.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterAccess(ttl)
+                            .build();
+  }
+
+  public String mainNav(HttpServletRequest request, HttpServletResponse response) {
+    UserAccount userAccount = currentUser();
+    // key 를 만들 때 읽은 값으로 그려야 key 와 내용이 맞음
+    long unreadCount = userAccount == null ? 0 : unreadNotificationCounter.get(userAccount.getAccountId());
+    return mainNavs.get(key(request, userAccount, unreadCount), k -> {
+      WebContext context = new WebContext(request, response, request.getServletContext(), request.getLocale());
+      context.setVariable("unreadNotificationCount", unreadCount);
+      return templateEngine.process("fragments", Set.of("main-nav"), context);
+    });
+  }
+
+  public long size() {
+    mainNavs.cleanUp();
+    return mainNavs.estimatedSize();
+  }
+
+  public void clear() {
+    mainNavs.invalidateAll();
+  }
+
+  private static UserAccount currentUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !(authentication.getPrincipal() instanceof UserAccount)) {
+      return null;
+    }
+    return (UserAccount) authentication.getPrincipal();
+  }
+
+  private static String key(HttpServletRequest request, UserAccount userAccount, long unreadCount) {
+    if (userAccount == null) {
+      return ANONYMOUS;
+    }
+    CsrfToken csrfToken = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+    return userAccount.getUsername()
+           + '\n' + userAccount.getProfileImage()
+           + '\n' + (csrfToken != null ? csrfToken.getToken() : "")
+           + '\n' + unreadCount;
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.global.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+누구나 볼 수 있는 화면(/, /profile/*)의 HTTP cache 설정
+  - ETag : 응답 내용의 hash 를 ETag header 로 보냄 (ShallowEtagHeaderFilter)
+      ㄴ 브라우저가 If-None-Match 로 같은 ETag 를 보내면 본문 없이 304 Not Modified 로 응답함
+      ㄴ 화면은 서버에서 그리지만, 보내는 양(transfer size)이 줄어듦
+  - Cache-Control: no-cache, private
+      ㄴ 브라우저는 저장해 두되 매번 ETag 로 확인해야 함 (로그인, 로그아웃이 바로 반영됨)
+      ㄴ private : 로그인한 회원의 이름, CSRF token 이 들어 있으므로 proxy(CDN)에는 저장하지 않음
+      ㄴ 직접 설정하면 Spring Security 는 기본값(no-cache, no-store)을 덮어쓰지 않음
+  - Vary: Cookie : session cookie 가 다르면 다른 응답임
+  - /settings/* 등 로그인해야 볼 수 있는 화면은 Spring Security 의 기본값(no-store)을 그대로 사용함
+*/
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+  private static final String[] PUBLIC_PAGES = {"/", "/profile/*"};
+
+  @Bean
+  public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+    FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    registration.addUrlPatterns(PUBLIC_PAGES);
+    return registration;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        return true;
+      }
+    }).addPathPatterns(PUBLIC_PAGES);
+  }
+
+}
@@ -0,0 +1,16 @@
+package com.global.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// 비밀번호 계산 요청이 많아서 BoundedPasswordEncoder 가 거절했을 때 던지는 예외
+//  - 로그인 중이면 Spring Security 가 로그인 실패로 처리함 (AuthenticationServiceException)
+//  - 회원 가입, 비밀번호 변경에서는 Controller 가 받아서 form 에 error 로 보여줌
+public class PasswordEncoderBusyException extends AuthenticationServiceException {
+
+  public static final String MESSAGE = "요청이 많아서 잠시 후에 다시 시도해 주세요";
+
+  public PasswordEncoderBusyException(Throwable cause) {
+    super(MESSAGE, cause);
+  }
+
+}
@@ -0,0 +1,81 @@
+package com.global.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/*
+로그인, 회원 가입, 인증 메일 확인 요청을 IP(와 회원)마다 제한하는 filter
+  - Spring Session, Spring Security filter 보다 먼저 실행되므로(SecurityConfig.rateLimitFilter)
+    거절한 요청은 session 조회, 회원 조회(JPA), 비밀번호 확인(bcrypt)을 하지 않음
+  - 거절하면 429 Too Many Requests 와 Retry-After(초) header 를 보냄
+  - 로그인은 IP 와 입력한 email/nickName 두 가지로 제한함
+      ㄴ 여러 IP 에서 한 회원의 비밀번호를 맞춰 보는 요청도 막음
+  - IP 는 request.getRemoteAddr() 를 사용함
+      ㄴ proxy(load balancer) 뒤에서 실행하면 server.forward-headers-strategy 를 설정해야 함
+*/
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final RateLimits rateLimits;
+
+  public RateLimitFilter(RateLimits rateLimits) {
+    this.rateLimits = rateLimits;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    Duration wait = check(request);
+    if (!wait.isZero()) {
+      reject(response, wait);
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private Duration check(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    String ip = request.getRemoteAddr();
+    boolean post = HttpMethod.POST.matches(request.getMethod());
+
+    if (post && path.equals("/login")) {
+      Duration wait = rateLimits.getLoginByIp().acquire(ip);
+      String username = request.getParameter("username");
+      if (wait.isZero() && username != null) {
+        // email 은 대소문자를 구분하지 않고 같은 회원으로 봄
+        wait = rateLimits.getLoginByUsername().acquire(username.toLowerCase(Locale.ROOT));
+      }
+      return wait;
+    }
+    if (post && path.equals("/sign-up")) {
+      return rateLimits.getSignUp().acquire(ip);
+    }
+    if (path.equals("/check-email-token")) {
+      return rateLimits.getEmailToken().acquire(ip);
+    }
+    if (path.equals("/sign-up/availability")) {
+      return rateLimits.getAvailability().acquire(ip);
+    }
+    return Duration.ZERO;
+  }
+
+  private static void reject(HttpServletResponse response, Duration wait) throws IOException {
+    // 1 초 미만이어도 Retry-After 는 초 단위이므로 올림
+    long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader("Retry-After", String.valueOf(seconds));
+    response.setContentType("text/plain;charset=UTF-8");
+    response.getOutputStream().write(("요청이 너무 많습니다. " + seconds + " 초 후에 다시 시도해 주세요")
+                                        .getBytes(StandardCharsets.UTF_8));
+  }
+
+}
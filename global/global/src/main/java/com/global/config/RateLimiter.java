@@ -0,0 +1,75 @@
+package com.global.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+key(IP, 회원 등) 마다 token bucket 으로 요청 수를 제한하는 클래스
+  - bucket 에는 최대 capacity 개의 token 이 있고, period 동안 capacity 개가 다시 채워짐
+      ㄴ 요청할 때마다 token 을 하나씩 사용하고, 없으면 거절함
+      ㄴ 채워지는 것은 따로 thread 를 두지 않고 요청할 때 지난 시간만큼 계산함
+  - bucket 은 lock 없이 AtomicReference 의 compareAndSet 으로 바꿈
+      ㄴ 거절할 때는 bucket 을 바꾸지 않음 (요청이 몰려도 경쟁하지 않음)
+  - bucket 은 Caffeine 에 최대 maxKeys 개까지 보관함
+      ㄴ period 동안 요청이 없던 bucket 은 가득 찬 것과 같으므로 지워도 됨 (expireAfterAccess)
+*/
+public class RateLimiter {
+
+  private final String name;
+  private final int capacity;
+  private final double refillPerNano;
+  private final Cache<String, AtomicReference<Bucket>> buckets;
+  private final Counter rejectedCounter;
+
+  public RateLimiter(String name, int capacity, Duration period, long maxKeys, MeterRegistry meterRegistry) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(name + " 의 capacity 는 1 이상이어야 합니다 : " + capacity);
+    }
+    this.name = name;
+    this.capacity = capacity;
+    this.refillPerNano = (double) capacity / period.toNanos();
+    this.buckets = Caffeine.newBuilder()
+                           .maximumSize(maxKeys)
+                           .expireAfterAccess(period)
+                           .build();
+    this.rejectedCounter = meterRegistry.counter("rate-limit.rejected", "limiter", name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  // token 을 하나 사용함
+  //  ㄴ return : Duration.ZERO 이면 허용, 아니면 다음 token 이 채워질 때까지 기다려야 하는 시간
+  public Duration acquire(String key) {
+    AtomicReference<Bucket> bucket = buckets.get(key, k -> new AtomicReference<>(new Bucket(capacity, System.nanoTime())));
+    while (true) {
+      Bucket current = bucket.get();
+      long now = System.nanoTime();
+      double tokens = Math.min(capacity, current.tokens + (now - current.updatedAt) * refillPerNano);
+      if (tokens < 1) {
+        rejectedCounter.increment();
+        return Duration.ofNanos((long) Math.ceil((1 - tokens) / refillPerNano));
+      }
+      if (bucket.compareAndSet(current, new Bucket(tokens - 1, now))) {
+        return Duration.ZERO;
+      }
+    }
+  }
+
+  private static final class Bucket {
+    private final double tokens;
+    private final long updatedAt;
+
+    private Bucket(double tokens, long updatedAt) {
+      this.tokens = tokens;
+      this.updatedAt = updatedAt;
+    }
+  }
+
+}
@@ -0,0 +1,48 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+요청 종류마다 사용하는 RateLimiter 를 모아 둔 클래스
+  - RateLimitFilter : 로그인, 회원 가입, 인증 메일 확인, 가입 확인 (IP, email/nickName 마다)
+  - AccountController : 인증 메일 다시 보내기 (회원마다)
+  - 거절한 요청 수는 /actuator/metrics/rate-limit.rejected?tag=limiter:login-ip 처럼 볼 수 있음
+  - 한 IP 를 여러 사용자가 함께 쓰는 경우(회사, 학교)가 있으므로 IP 마다의 제한은 넉넉하게 잡음
+*/
+@Getter
+@Component
+public class RateLimits {
+
+  private static final Duration MINUTE = Duration.ofMinutes(1);
+
+  private final RateLimiter loginByIp;
+  private final RateLimiter loginByUsername;
+  private final RateLimiter signUp;
+  private final RateLimiter emailToken;
+  private final RateLimiter availability;
+  private final RateLimiter resendEmail;
+
+  public RateLimits(MeterRegistry meterRegistry,
+                    @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                    @Value("${app.rate-limit.login-per-ip:30}") int loginPerIp,
+                    @Value("${app.rate-limit.login-per-username:10}") int loginPerUsername,
+                    @Value("${app.rate-limit.sign-up-per-ip:10}") int signUpPerIp,
+                    @Value("${app.rate-limit.email-token-per-ip:20}") int emailTokenPerIp,
+                    @Value("${app.rate-limit.availability-per-ip:120}") int availabilityPerIp,
+                    @Value("${app.rate-limit.resend-email-per-account:3}") int resendEmailPerAccount) {
+    this.loginByIp = new RateLimiter("login-ip", loginPerIp, MINUTE, maxKeys, meterRegistry);
+    this.loginByUsername = new RateLimiter("login-username", loginPerUsername, MINUTE, maxKeys, meterRegistry);
+    this.signUp = new RateLimiter("sign-up", signUpPerIp, MINUTE, maxKeys, meterRegistry);
+    this.emailToken = new RateLimiter("email-token", emailTokenPerIp, MINUTE, maxKeys, meterRegistry);
+    this.availability = new RateLimiter("availability", availabilityPerIp, MINUTE, maxKeys, meterRegistry);
+    // 인증 메일을 실제로 보낼 수 있는지는 Account.canSendConfirmEmail() 로 확인하고 (1 시간에 한 번)
+    // 여기서는 그보다 넉넉하게 잡아서 같은 회원의 반복 요청이 DB 까지 오지 않게만 함
+    this.resendEmail = new RateLimiter("resend-email", resendEmailPerAccount, Duration.ofHours(1), maxKeys, meterRegistry);
+  }
+
+}
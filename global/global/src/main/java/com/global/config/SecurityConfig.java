@@ -3,6 +3,7 @@ package com.global.config;
 import com.global.account.AccountService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,10 +11,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.session.web.http.SessionRepositoryFilter;
 
-import javax.sql.DataSource;
+import java.util.UUID;
 
 @Configuration
 @EnableWebSecurity
@@ -21,15 +21,24 @@ import javax.sql.DataSource;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
   private final AccountService accountService;
-  private final DataSource dataSource;
+  private final CachingTokenRepository tokenRepository;
+
+  // 요청 수 제한(RateLimitFilter)은 Spring Session, Spring Security filter 보다 먼저 실행함
+  //  ㄴ 거절한 요청은 session 조회(DB), 회원 조회, bcrypt 계산을 하지 않음
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimits rateLimits) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimits));
+    registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER - 10);
+    return registration;
+  }
 
   @Override
   protected void configure(HttpSecurity http) throws Exception {
     http.authorizeRequests()
-        .mvcMatchers("/", "/login", "/sign-up", "/check-email-token",
+        .mvcMatchers("/", "/login", "/sign-up", "/sign-up/availability", "/check-email-token",
                      "/email-login", "/check-email-login", "/login-link")
         .permitAll()
-        .mvcMatchers(HttpMethod.GET, "/profile/*")
+        .mvcMatchers(HttpMethod.GET, "/profile/*", "/search/study")
         .permitAll()
         .anyRequest().authenticated();
 
@@ -41,16 +50,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     http.logout()
         .logoutSuccessUrl("/");
     
+    // token 은 CachingTokenRepository 가 memory 에 보관하면서 persistent_logins 테이블에 저장함
+    //  ㄴ key 는 token 에 들어가지 않고 자동 로그인한 Authentication 을 확인할 때만 사용하므로
+    //     Spring Security 의 기본값처럼 서버마다 임의로 만듦
+    String rememberMeKey = UUID.randomUUID().toString();
+    CachingRememberMeServices rememberMeServices = new CachingRememberMeServices(rememberMeKey, accountService, tokenRepository);
+    rememberMeServices.setTokenValiditySeconds((int) tokenRepository.getTokenValidity().getSeconds());
     http.rememberMe()
-      .userDetailsService(accountService)
-      .tokenRepository(tokenRepository());
-  }
-
-  @Bean
-  public PersistentTokenRepository tokenRepository(){
-    JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
-    jdbcTokenRepository.setDataSource(dataSource);
-    return jdbcTokenRepository;
+      .key(rememberMeKey)
+      .rememberMeServices(rememberMeServices);
   }
 
   @Override
@@ -58,7 +66,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     // resource/static 에 있는 data 는 Spring Security 로 설정하지 않는 설정
     // resource/static/images 폴더에 있는 image 를 보이게 함
     web.ignoring()
-       .mvcMatchers("/node_modules/**")
+       .mvcMatchers("/assets/**")
        .antMatchers("/favicon.ico", "/resources/**", "/error")
        .requestMatchers(PathRequest.toStaticResources().atCommonLocations());
   }
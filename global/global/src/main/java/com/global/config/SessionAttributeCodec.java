@@ -0,0 +1,427 @@
+package com.global.config;
+
+import com.global.account.LoginAccount;
+import com.global.account.UserAccount;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.FlashMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/*
+session attribute 를 DB(SPRING_SESSION_ATTRIBUTES 테이블)에 저장할 byte[] 로 바꾸는 클래스
+  - 첫 1 byte 는 형식을 나타냄
+      ㄴ SECURITY_CONTEXT : 로그인 정보 (SecurityContextImpl + UsernamePasswordAuthenticationToken + UserAccount)
+      ㄴ CSRF_TOKEN       : CSRF token (DefaultCsrfToken)
+      ㄴ FLASH_MAPS       : redirect 할 때 넘기는 flash attribute (값이 문자열인 FlashMap 목록)
+      ㄴ RAW, DEFLATED    : 그 밖의 attribute 는 Java 직렬화(Serializable), DEFLATED 는 Deflater 로 압축한 것
+  - 요청마다 읽고 쓰는 위 3 가지는 class 정보 없이 필드 값만 차례대로 씀
+      ㄴ 길이와 숫자는 varint (작은 값은 1 byte), 문자열은 UTF-8
+      ㄴ Java 직렬화 결과는 대부분이 class 이름, 필드 이름 같은 class 정보라서 값보다 훨씬 큼
+      ㄴ 조건에 맞지 않으면(remember-me 로그인, 다른 값이 들어 있는 flash attribute 등) Java 직렬화를 사용함
+  - Java 직렬화는 CSRF token 처럼 작은 attribute 는 압축하는 비용이 더 크므로
+    compressThreshold 보다 큰 attribute 만 압축함, 압축해도 작아지지 않으면 그대로 저장함
+  - 예전에 RAW, DEFLATED 로 저장한 session 도 그대로 읽을 수 있음
+  - 크기와 시간은 SessionCodecBenchmark 로 비교함
+*/
+public class SessionAttributeCodec {
+
+  static final byte RAW = 0;
+  static final byte DEFLATED = 1;
+  static final byte SECURITY_CONTEXT = 2;
+  static final byte CSRF_TOKEN = 3;
+  static final byte FLASH_MAPS = 4;
+
+  private final int compressThreshold;
+  private final ClassLoader classLoader;
+  private final boolean compact;
+
+  public SessionAttributeCodec(int compressThreshold, ClassLoader classLoader) {
+    this(compressThreshold, classLoader, true);
+  }
+
+  // compact : false 이면 모든 attribute 를 Java 직렬화로 저장함 (SessionCodecBenchmark 에서 비교할 때 사용)
+  public SessionAttributeCodec(int compressThreshold, ClassLoader classLoader, boolean compact) {
+    this.compressThreshold = compressThreshold;
+    this.classLoader = classLoader;
+    this.compact = compact;
+  }
+
+  public byte[] serialize(Object attribute) {
+    if (compact) {
+      byte[] encoded = encode(attribute);
+      if (encoded != null) {
+        return encoded;
+      }
+    }
+    byte[] serialized = javaSerialize(attribute);
+    if (serialized.length > compressThreshold) {
+      byte[] deflated = deflate(serialized);
+      if (deflated.length < serialized.length) {
+        return withHeader(DEFLATED, deflated);
+      }
+    }
+    return withHeader(RAW, serialized);
+  }
+
+  public Object deserialize(byte[] bytes) {
+    if (bytes.length == 0) {
+      throw new IllegalArgumentException("session attribute 가 비어 있습니다");
+    }
+    switch (bytes[0]) {
+      case SECURITY_CONTEXT:
+        return readSecurityContext(new Reader(bytes));
+      case CSRF_TOKEN:
+        return readCsrfToken(new Reader(bytes));
+      case FLASH_MAPS:
+        return readFlashMaps(new Reader(bytes));
+      case RAW:
+      case DEFLATED:
+        return javaDeserialize(bytes);
+      default:
+        throw new IllegalArgumentException("알 수 없는 session attribute 형식입니다 : " + bytes[0]);
+    }
+  }
+
+  // 필드 값만 쓸 수 있는 attribute 이면 그 결과, 아니면 null
+  //  ㄴ 상속한 class 는 다른 필드가 있을 수 있으므로 class 가 정확히 같은 경우에만 씀
+  private byte[] encode(Object attribute) {
+    if (attribute != null && attribute.getClass() == SecurityContextImpl.class) {
+      return writeSecurityContext((SecurityContextImpl) attribute);
+    }
+    if (attribute != null && attribute.getClass() == DefaultCsrfToken.class) {
+      DefaultCsrfToken token = (DefaultCsrfToken) attribute;
+      Writer writer = new Writer(CSRF_TOKEN);
+      writer.writeString(token.getHeaderName());
+      writer.writeString(token.getParameterName());
+      writer.writeString(token.getToken());
+      return writer.toByteArray();
+    }
+    if (attribute instanceof List) {
+      return writeFlashMaps((List<?>) attribute);
+    }
+    return null;
+  }
+
+  // 아이디, 비밀번호로 로그인한 경우 (AccountService.login, form login)
+  //  ㄴ credentials 와 UserAccount 의 password 는 지운 뒤에 저장되므로 쓰지 않음, 지우지 않았으면 Java 직렬화
+  private byte[] writeSecurityContext(SecurityContextImpl context) {
+    Authentication authentication = context.getAuthentication();
+    if (authentication == null || authentication.getClass() != UsernamePasswordAuthenticationToken.class
+        || !authentication.isAuthenticated() || authentication.getCredentials() != null
+        || authentication.getPrincipal() == null || authentication.getPrincipal().getClass() != UserAccount.class) {
+      return null;
+    }
+    Object details = authentication.getDetails();
+    if (details != null && details.getClass() != WebAuthenticationDetails.class) {
+      return null;
+    }
+    UserAccount principal = (UserAccount) authentication.getPrincipal();
+    // UserAccount 의 권한, 계정 상태는 생성자에서 정해지므로 쓰지 않음
+    if (principal.getAccountId() == null || principal.getPassword() != null || !principal.isEnabled()
+        || !principal.isAccountNonExpired() || !principal.isAccountNonLocked() || !principal.isCredentialsNonExpired()
+        || !onlySimpleAuthorities(authentication.getAuthorities())) {
+      return null;
+    }
+
+    Writer writer = new Writer(SECURITY_CONTEXT);
+    writer.writeLong(principal.getAccountId());
+    writer.writeString(principal.getUsername());
+    writer.writeString(principal.getEmail());
+    writer.writeBoolean(principal.isEmailVerified());
+    writer.writeString(principal.getProfileImage());
+    writer.writeAuthorities(authentication.getAuthorities());
+    writer.writeBoolean(details != null);
+    if (details != null) {
+      writer.writeString(((WebAuthenticationDetails) details).getRemoteAddress());
+      writer.writeString(((WebAuthenticationDetails) details).getSessionId());
+    }
+    return writer.toByteArray();
+  }
+
+  private SecurityContextImpl readSecurityContext(Reader reader) {
+    Long accountId = reader.readLong();
+    String nickName = reader.readString();
+    String email = reader.readString();
+    boolean emailVerified = reader.readBoolean();
+    String profileImage = reader.readString();
+    List<GrantedAuthority> authorities = reader.readAuthorities();
+    // User 는 비밀번호가 null 이면 만들 수 없으므로 "" 로 만들고 지움
+    UserAccount principal = new UserAccount(new LoginAccount(accountId, nickName, email, "", emailVerified, profileImage));
+    principal.eraseCredentials();
+    UsernamePasswordAuthenticationToken authentication =
+      new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    if (reader.readBoolean()) {
+      authentication.setDetails(new WebAuthenticationDetails(reader.readString(), reader.readString()));
+    }
+    return new SecurityContextImpl(authentication);
+  }
+
+  private DefaultCsrfToken readCsrfToken(Reader reader) {
+    return new DefaultCsrfToken(reader.readString(), reader.readString(), reader.readString());
+  }
+
+  // SessionFlashMapManager 가 저장하는 List<FlashMap>
+  //  ㄴ 이 application 의 flash attribute 는 "message" 같은 문자열이므로 값이 모두 문자열일 때만 씀
+  private byte[] writeFlashMaps(List<?> list) {
+    // 비어 있으면 SessionFlashMapManager 는 저장하지 않으므로 다른 List 임
+    if (list.isEmpty()) {
+      return null;
+    }
+    for (Object element : list) {
+      if (element == null || element.getClass() != FlashMap.class) {
+        return null;
+      }
+      for (Object value : ((FlashMap) element).values()) {
+        if (value != null && !(value instanceof String)) {
+          return null;
+        }
+      }
+    }
+    Writer writer = new Writer(FLASH_MAPS);
+    writer.writeVarInt(list.size());
+    for (Object element : list) {
+      FlashMap flashMap = (FlashMap) element;
+      writer.writeString(flashMap.getTargetRequestPath());
+      MultiValueMap<String, String> params = flashMap.getTargetRequestParams();
+      writer.writeVarInt(params.size());
+      params.forEach((name, values) -> {
+        writer.writeString(name);
+        writer.writeVarInt(values.size());
+        values.forEach(writer::writeString);
+      });
+      writer.writeLong(flashMap.getExpirationTime());
+      writer.writeVarInt(flashMap.size());
+      for (Map.Entry<String, Object> entry : flashMap.entrySet()) {
+        writer.writeString(entry.getKey());
+        writer.writeString((String) entry.getValue());
+      }
+    }
+    return writer.toByteArray();
+  }
+
+  private List<FlashMap> readFlashMaps(Reader reader) {
+    int count = reader.readVarInt();
+    // SessionFlashMapManager 가 만드는 것과 같은 List (여러 요청이 함께 읽고 지움)
+    List<FlashMap> flashMaps = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < count; i++) {
+      FlashMap flashMap = new FlashMap();
+      flashMap.setTargetRequestPath(reader.readString());
+      MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+      int paramCount = reader.readVarInt();
+      for (int p = 0; p < paramCount; p++) {
+        String name = reader.readString();
+        int valueCount = reader.readVarInt();
+        for (int v = 0; v < valueCount; v++) {
+          params.add(name, reader.readString());
+        }
+      }
+      flashMap.addTargetRequestParams(params);
+      flashMap.setExpirationTime(reader.readLong());
+      int size = reader.readVarInt();
+      for (int e = 0; e < size; e++) {
+        flashMap.put(reader.readString(), reader.readString());
+      }
+      flashMaps.add(flashMap);
+    }
+    return flashMaps;
+  }
+
+  private static boolean onlySimpleAuthorities(Iterable<? extends GrantedAuthority> authorities) {
+    for (GrantedAuthority authority : authorities) {
+      if (authority.getClass() != SimpleGrantedAuthority.class) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Object javaDeserialize(byte[] bytes) {
+    InputStream in = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+    if (bytes[0] == DEFLATED) {
+      in = new InflaterInputStream(in);
+    }
+    // application 의 class(UserAccount 등)를 찾을 수 있도록 ClassLoader 를 지정함
+    try (ObjectInputStream objectIn = new ConfigurableObjectInputStream(in, classLoader)) {
+      return objectIn.readObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException("session attribute 를 읽을 수 없습니다", e);
+    }
+  }
+
+  private byte[] javaSerialize(Object attribute) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+      objectOut.writeObject(attribute);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  // 요청마다 실행되므로 압축률보다 속도를 우선함 (BEST_SPEED)
+  private byte[] deflate(byte[] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+    try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater)) {
+      deflaterOut.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+    return out.toByteArray();
+  }
+
+  private byte[] withHeader(byte header, byte[] body) {
+    byte[] bytes = new byte[body.length + 1];
+    bytes[0] = header;
+    System.arraycopy(body, 0, bytes, 1, body.length);
+    return bytes;
+  }
+
+  // 형식을 나타내는 1 byte 다음에 값을 차례대로 씀
+  //  - varint : 7 bit 씩 나누어 쓰고, 뒤에 더 있으면 최상위 bit 를 켬
+  //  - long   : zigzag 로 바꾼 varint (-1 같은 작은 음수도 1 byte)
+  //  - 문자열 : (UTF-8 길이 + 1) 을 varint 로 쓰고 UTF-8, null 이면 0
+  private static final class Writer {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+    private Writer(byte header) {
+      out.write(header);
+    }
+
+    void writeVarInt(int value) {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeLong(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeBoolean(boolean value) {
+      out.write(value ? 1 : 0);
+    }
+
+    void writeString(String value) {
+      if (value == null) {
+        writeVarInt(0);
+        return;
+      }
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(utf8.length + 1);
+      out.write(utf8, 0, utf8.length);
+    }
+
+    void writeAuthorities(Iterable<? extends GrantedAuthority> authorities) {
+      List<String> names = new ArrayList<>();
+      authorities.forEach(authority -> names.add(authority.getAuthority()));
+      writeVarInt(names.size());
+      names.forEach(this::writeString);
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+
+    private void writeVarLong(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) (value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+  }
+
+  private static final class Reader {
+    private final byte[] bytes;
+    private int position = 1;
+
+    private Reader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int readVarInt() {
+      long value = readVarLong();
+      if (value > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("session attribute 의 길이가 잘못되었습니다 : " + value);
+      }
+      return (int) value;
+    }
+
+    long readLong() {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    boolean readBoolean() {
+      return next() != 0;
+    }
+
+    String readString() {
+      int length = readVarInt();
+      if (length == 0) {
+        return null;
+      }
+      if (length - 1 > bytes.length - position) {
+        throw new IllegalArgumentException("session attribute 가 중간에 끝났습니다");
+      }
+      String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+      position += length - 1;
+      return value;
+    }
+
+    List<GrantedAuthority> readAuthorities() {
+      int count = readVarInt();
+      List<GrantedAuthority> authorities = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        authorities.add(new SimpleGrantedAuthority(readString()));
+      }
+      return authorities;
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = next();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("session attribute 의 varint 가 잘못되었습니다");
+    }
+
+    private int next() {
+      if (position >= bytes.length) {
+        throw new IllegalArgumentException("session attribute 가 중간에 끝났습니다");
+      }
+      return bytes[position++] & 0xFF;
+    }
+  }
+
+}
@@ -0,0 +1,47 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+
+// session 저장소 설정
+//  - 저장소(JDBC, none 등)는 application.properties 의 spring.session.store-type 으로 바꿀 수 있음
+//  - Spring Session 은 springSessionConversionService 라는 이름의 Bean 이 있으면
+//    session attribute 를 byte[] 로 바꿀 때 그 Bean 을 사용함
+//      ㄴ 기본 Java 직렬화 대신 SessionAttributeCodec(자주 쓰는 attribute 는 필드 값만 씀)을 사용하도록 등록함
+//  - 직렬화에 걸리는 시간은 /actuator/metrics/session.attribute.serialize (deserialize) 에서 볼 수 있음
+@Configuration
+public class SessionConfig implements BeanClassLoaderAware {
+
+  private ClassLoader classLoader;
+
+  @Override
+  public void setBeanClassLoader(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  @Bean
+  public SessionAttributeCodec sessionAttributeCodec(
+      @Value("${app.session.compress-threshold:1024}") int compressThreshold) {
+    return new SessionAttributeCodec(compressThreshold, classLoader);
+  }
+
+  @Bean
+  public ConversionService springSessionConversionService(SessionAttributeCodec sessionAttributeCodec,
+                                                         MeterRegistry meterRegistry) {
+    Timer serializeTimer = meterRegistry.timer("session.attribute.serialize");
+    Timer deserializeTimer = meterRegistry.timer("session.attribute.deserialize");
+    GenericConversionService conversionService = new GenericConversionService();
+    conversionService.addConverter(Object.class, byte[].class,
+        attribute -> serializeTimer.record(() -> sessionAttributeCodec.serialize(attribute)));
+    conversionService.addConverter(byte[].class, Object.class,
+        bytes -> deserializeTimer.record(() -> sessionAttributeCodec.deserialize(bytes)));
+    return conversionService;
+  }
+
+}
@@ -0,0 +1,54 @@
+package com.global.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/*
+app.threads.virtual=true 일 때 요청 처리를 virtual thread 에서 실행하는 설정 (JDK 24 이상)
+  - Tomcat : 요청마다 새 virtual thread 에서 실행함 (server.tomcat.threads.max 는 사용하지 않음)
+      ㄴ 동시에 처리하는 요청 수는 server.tomcat.max-connections 로 제한됨
+  - @Async, MVC 비동기 요청 : applicationTaskExecutor 를 virtual thread 로 바꿈
+  - MailDispatcher 의 worker 도 virtual thread 로 실행됨 (app.threads.virtual 을 직접 읽음)
+  - BoundedPasswordEncoder 는 CPU 만 사용하는 bcrypt 의 동시 실행 수를 제한하는 것이 목적이므로
+    platform thread 를 그대로 사용함
+  - pinning 점검 : JDK 21 ~ 23 에서는 synchronized 안에서 I/O 를 기다리면 carrier thread 가 묶임
+      ㄴ CachingTokenRepository : Caffeine 의 get(key, loader) 는 lock 안에서 DB 를 조회하므로 lock 밖에서 조회함
+      ㄴ HikariCP, MailDispatcher 의 queue : java.util.concurrent 의 lock 으로 기다리므로 묶이지 않음
+      ㄴ PostgreSQL JDBC driver : 42.6.0 전에는 QueryExecutorImpl 이 synchronized 안에서 socket 응답을 기다림
+           ㄴ 42.6.0 부터 ReentrantLock 을 사용하므로 pom.xml 에서 postgresql.version 을 올림
+      ㄴ Tomcat 9 : socket 을 읽고 쓰는 곳(SocketWrapperBase, NioEndpoint), session 관리 등에 synchronized 가 남아 있음
+           ㄴ Tomcat 10.1 부터 바뀌었지만 Spring Boot 2.7 은 Tomcat 9 를 사용함
+      ㄴ Hibernate 5.6 : sequence 의 pooled optimizer(PooledOptimizer.generate)가 synchronized 안에서 sequence 를 조회함
+           ㄴ Account 는 ID_ALLOCATION_SIZE(50) 번에 한 번 DB 를 조회하므로 그때마다 묶임
+      ㄴ Tomcat 9, Hibernate 5.6 은 Spring Boot 3 로 옮기기 전에는 바꿀 수 없으므로
+         synchronized 에서 묶이지 않는 JDK 24(JEP 491) 이상에서만 시작됨 (VirtualThreads.MIN_JDK)
+      ㄴ JDK 24 에서는 JFR 의 jdk.VirtualThreadPinned event 로 남은 pinning(native method 등)을 볼 수 있음
+*/
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+  public VirtualThreadConfig() {
+    VirtualThreads.requireSupported();
+    log.info("요청을 virtual thread 에서 처리합니다");
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-"));
+  }
+
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task-"));
+  }
+
+}
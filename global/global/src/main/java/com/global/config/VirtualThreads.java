@@ -0,0 +1,86 @@
+package com.global.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+virtual thread 를 만드는 클래스
+  - project 는 Java 11 로 compile 하므로 Thread.ofVirtual() 등을 직접 호출할 수 없어서 reflection 으로 호출함
+  - JDK 24 이상에서 실행할 때만 사용할 수 있음 (isSupported())
+      ㄴ virtual thread 는 JDK 21 부터 있지만, JDK 21 ~ 23 에서는 synchronized 안에서 I/O 를 기다리면
+         carrier thread 가 묶임(pinning)
+      ㄴ Tomcat 9, Hibernate 5.6 에는 그런 곳이 남아 있으므로(VirtualThreadConfig) 묶이지 않는 JDK 24(JEP 491) 부터 사용함
+*/
+public final class VirtualThreads {
+
+  private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+  private static final Method IS_VIRTUAL = findMethod(Thread.class, "isVirtual");
+  // synchronized 에서 carrier thread 가 묶이지 않는 첫 JDK (JEP 491)
+  static final int MIN_JDK = 24;
+
+  private VirtualThreads() {
+  }
+
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null && supports(Runtime.version().feature());
+  }
+
+  // jdkFeature : Runtime.version().feature() (21, 24 등)
+  static boolean supports(int jdkFeature) {
+    return jdkFeature >= MIN_JDK;
+  }
+
+  // 지원하지 않는 JDK 에서 virtual thread 를 사용하도록 설정했으면 서버가 시작되지 않도록 함
+  public static void requireSupported() {
+    if (!isSupported()) {
+      throw new IllegalStateException("virtual thread 는 JDK " + MIN_JDK + " 이상에서만 사용할 수 있습니다 (현재 : "
+                                      + Runtime.version() + "). app.threads.virtual=false 로 설정하세요");
+    }
+  }
+
+  // 이름이 prefix0, prefix1, ... 인 virtual thread 를 만드는 ThreadFactory
+  //  ㄴ Thread.ofVirtual().name(prefix, 0).factory()
+  public static ThreadFactory threadFactory(String prefix) {
+    requireSupported();
+    try {
+      // 구현 class 는 공개되지 않았으므로 공개된 interface(Thread.Builder)의 method 를 호출함
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("virtual thread 를 만들 수 없습니다", e);
+    }
+  }
+
+  // 작업마다 새 virtual thread 를 만드는 ExecutorService
+  //  ㄴ Executors.newThreadPerTaskExecutor(threadFactory(prefix))
+  public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+    ThreadFactory threadFactory = threadFactory(prefix);
+    try {
+      Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) method.invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("virtual thread 를 만들 수 없습니다", e);
+    }
+  }
+
+  public static boolean isVirtual(Thread thread) {
+    try {
+      return IS_VIRTUAL != null && (boolean) IS_VIRTUAL.invoke(thread);
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  private static Method findMethod(Class<?> type, String name) {
+    try {
+      return type.getMethod(name);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+}
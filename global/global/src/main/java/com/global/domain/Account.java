@@ -6,14 +6,33 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// 알림을 보낼 회원은 알림 설정 값과 인증 여부로 찾고 id 순서로 나눠서 읽으므로(AccountRepository.findSubscribers)
+// (notification_preferences, email_verified, id) 순서로 index 를 만듦
+//  ㄴ columnList 에는 @Column(name) 으로 정한 column 이름을 씀
+@Table(indexes = @Index(name = "idx_account_notification_preferences",
+                        columnList = "notification_preferences, email_verified, id"))
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class Account {
 
-  @Id  @GeneratedValue
+  // id 는 sequence 에서 한 번에 ID_ALLOCATION_SIZE 개씩 받아서 사용함 (pooled optimizer)
+  //  ㄴ 회원을 추가할 때마다 sequence 를 조회하지 않음
+  //  ㄴ AccountImporter 도 같은 sequence 에서 같은 방식으로 받아서 JDBC batch insert 에 사용함
+  public static final String ID_SEQUENCE = "account_seq";
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+  @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
+  // 수정할 때마다 1 씩 늘어나는 버전 (optimistic locking)
+  //  ㄴ 프로필, 비밀번호는 AccountRepository 의 update query 로 바꾸고, 그때 직접 버전을 확인하고 늘림
+  //  ㄴ 다른 탭에서 먼저 저장했으면 버전이 달라서 바뀌지 않음 (나중 저장이 먼저 저장한 값을 덮어쓰지 않음)
+  @Version
+  private int version;
+
   @Column(unique = true)
   private String email;
 
@@ -21,7 +40,10 @@ public class Account {
   private String nickName;
 
   private String password;
+
+  @Column(name = "email_verified")
   private boolean emailVerified;
+
   private String emailCheckToken;
   private LocalDateTime emailCheckTokenGeneratedAt;
   private LocalDateTime joinedAt;
@@ -30,45 +52,39 @@ public class Account {
   private String occupation;
   private String location;
 
-  @Lob @Basic(fetch=FetchType.EAGER)
+  // 프로필 사진의 URL (/images/profile/{hash})
+  //  ㄴ 사진 자체는 ImageStore 에 저장하고 Account 에는 위치만 저장함
   private String profileImage;
 
-  private boolean studyCreateByEmail;
-
-  private boolean studyCreateByWeb;
-
-  private boolean studyEnrollmentResultByEmail;
-
-  private boolean studyEnrollmentResultByWeb;
-
-  private boolean studyUpdateByEmail;
-
-  private boolean studyUpdateByWeb;
+  // 알림 설정 : 알림 종류(NotificationType)와 받는 방법(NotificationChannel)마다 1 bit
+  //  ㄴ boolean column 6 개 대신 int column 하나에 저장함
+  //  ㄴ isNotified(), setNotified() 로 읽고 바꿈
+  @Column(name = "notification_preferences", nullable = false)
+  private int notificationPreferences;
 
   public void generateEmailCheckToken() {
     // UUID.randomUUID()
     //       ㄴ random 한 UUID 생성
     // UUID (Universally Unique Identifier)
     // ㄴ 네트워크 상에서의 ID 의 고유성을 보장하는 규약
+    // 메일에 보내는 token 은 이 값(nonce)과 id, 생성 시간에 서명한 값임 (EmailTokenSigner)
+    //  ㄴ 다시 생성하면 예전 메일의 token 은 사용할 수 없음
     this.emailCheckToken = UUID.randomUUID().toString();
     this.emailCheckTokenGeneratedAt = LocalDateTime.now();
   }
 
-  public void completeSignUp() {
-    // 가입자가 입력한 이메일이 정상적으로 등록된 경우 + token 까지 확인된 경우
-    // this.setEmailVerified(true);
-    this.emailVerified = true;
-    // 가입한 시간 등록
-    // this.setJoinedAt(LocalDateTime.now());
-    this.joinedAt = LocalDateTime.now();
+  // 한 시간 이내에 이메일 보낸 이력이 있는지 없는지 확인함
+  public boolean canSendConfirmEmail() {
+    return this.emailCheckTokenGeneratedAt.isBefore(LocalDateTime.now().minusHours(1));
   }
 
-  public boolean isValidToken(String token) {
-    return this.emailCheckToken.equals(token);
+  // type 의 알림을 channel 로 받는지 확인함
+  public boolean isNotified(NotificationType type, NotificationChannel channel) {
+    return (notificationPreferences & type.bit(channel)) != 0;
   }
 
-  // 한 시간 이내에 이메일 보낸 이력이 있는지 없는지 확인함
-  public boolean canSendConfirmEmail() {
-    return this.emailCheckTokenGeneratedAt.isBefore(LocalDateTime.now().minusHours(1));
+  public void setNotified(NotificationType type, NotificationChannel channel, boolean notified) {
+    int bit = type.bit(channel);
+    notificationPreferences = notified ? notificationPreferences | bit : notificationPreferences & ~bit;
   }
 }
@@ -0,0 +1,47 @@
+package com.global.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 웹 알림 (NotificationService)
+//  - 화면마다 "읽지 않은 알림 수" 와 목록을 회원별로 조회하므로
+//    (account_id, checked, created_at) 순서로 index 를 만듦
+//      ㄴ 읽지 않은 알림 목록(keyset), 한꺼번에 읽음 처리가 모두 이 index 만 사용함
+//  - 회원은 조회하지 않고 id 만 사용하므로 LAZY 로 가져옴
+@Table(indexes = @Index(name = "idx_notification_account_checked_created",
+                        columnList = "account_id, checked, created_at"))
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class Notification {
+
+  // Account 와 같은 방식으로 sequence 에서 여러 개씩 받아서 사용함
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+  @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  private Account account;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private NotificationType notificationType;
+
+  @Column(nullable = false)
+  private String title;
+
+  private String message;
+
+  // 알림을 눌렀을 때 이동하는 URL
+  private String link;
+
+  // 읽었으면 true
+  private boolean checked;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+}
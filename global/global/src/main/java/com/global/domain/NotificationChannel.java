@@ -0,0 +1,21 @@
+package com.global.domain;
+
+// 알림을 받는 방법
+//  - offset : NotificationType 의 bit 위치에 더하는 값 (Account.notificationPreferences)
+//      ㄴ DB 에 저장된 설정이 바뀌므로 값을 바꾸거나 순서를 바꾸지 말 것
+public enum NotificationChannel {
+
+  EMAIL(0),
+  WEB(1);
+
+  private final int offset;
+
+  NotificationChannel(int offset) {
+    this.offset = offset;
+  }
+
+  int getOffset() {
+    return offset;
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.global.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+알림 종류
+  - 회원의 알림 설정(Account.notificationPreferences)은 종류와 방법(NotificationChannel)마다 1 bit 씩 사용함
+      ㄴ shift : 이 종류의 EMAIL bit 위치, WEB 은 그 다음 bit
+      ㄴ DB 에 저장된 설정이 바뀌므로 값을 바꾸지 말 것 (새 종류는 6 부터 2 칸씩)
+  - 설정 값은 ALL 이하의 정수이므로 가능한 값이 2^(종류 수 x 2) 개 뿐임
+      ㄴ "이 알림을 받는 회원" 은 bit 를 계산하는 조건(bitand) 대신
+         그 bit 가 켜진 값을 모두 나열해서 in (...) 으로 조회함 (index 를 사용할 수 있음)
+*/
+public enum NotificationType {
+
+  STUDY_CREATED(0),
+  STUDY_ENROLLMENT(2),
+  STUDY_UPDATED(4);
+
+  // 모든 알림을 모든 방법으로 받는 설정
+  public static final int ALL;
+  // 회원 가입할 때의 설정 : 모든 알림을 웹으로만 받음
+  public static final int DEFAULT;
+
+  static {
+    int all = 0;
+    int byWeb = 0;
+    for (NotificationType type : values()) {
+      all |= type.bit(NotificationChannel.EMAIL) | type.bit(NotificationChannel.WEB);
+      byWeb |= type.bit(NotificationChannel.WEB);
+    }
+    ALL = all;
+    DEFAULT = byWeb;
+  }
+
+  private final int shift;
+
+  NotificationType(int shift) {
+    this.shift = shift;
+  }
+
+  public int bit(NotificationChannel channel) {
+    return 1 << (shift + channel.getOffset());
+  }
+
+  // 이 알림을 channel 로 받는 설정 값을 모두 나열함 (AccountRepository.findSubscribers)
+  public List<Integer> preferencesWith(NotificationChannel channel) {
+    int bit = bit(channel);
+    List<Integer> preferences = new ArrayList<>();
+    for (int value = 0; value <= ALL; value++) {
+      if ((value & bit) != 0 && (value & ~ALL) == 0) {
+        preferences.add(value);
+      }
+    }
+    return Collections.unmodifiableList(preferences);
+  }
+
+}
@@ -6,11 +6,16 @@ import lombok.Setter;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 
-@Table(name = "persistent_logins")
+// username : 로그아웃할 때 회원의 token 을 모두 지움
+// last_used : 유효 기간이 지난 token 을 지움 (CachingTokenRepository.purgeExpired)
+@Table(name = "persistent_logins",
+       indexes = {@Index(name = "idx_persistent_logins_username", columnList = "username"),
+                  @Index(name = "idx_persistent_logins_last_used", columnList = "last_used")})
 @Entity
 @Getter @Setter
 public class PersistentLogins {
@@ -0,0 +1,97 @@
+package com.global.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/*
+프로필 사진이 없는 회원의 identicon(nickName 으로 만든 무늬) 을 서버에서 SVG 로 만드는 클래스
+  - 예전에는 화면마다 jdenticon script 를 받아서 browser 에서 그렸음
+  - URL : /images/identicon/{nickName 의 SHA-256 hash}
+      ㄴ 같은 hash 는 항상 같은 그림이므로 1 년 동안 browser 가 다시 요청하지 않음 (ImageController)
+  - 그림 : 5x5 칸, 왼쪽 3 줄을 hash 의 bit 로 칠하고 오른쪽은 좌우 대칭으로 칠함
+      ㄴ 색(hue)도 hash 에서 정함
+  - 만든 SVG 는 hash 를 key 로 cache 에 보관함 (최대 cache-size 개, 오래 사용하지 않은 것부터 지움)
+*/
+@Component
+public class IdenticonGenerator {
+
+  public static final String IDENTICON_URL = "/images/identicon/";
+
+  // SHA-256 hash 를 16 진수로 표현한 문자열 (64 글자)
+  private static final Pattern HASH = Pattern.compile("^[0-9a-f]{64}$");
+  private static final int CELLS = 5;
+
+  private final Cache<String, byte[]> svgs;
+
+  public IdenticonGenerator(@Value("${app.identicon.cache-size:10000}") long cacheSize) {
+    this.svgs = Caffeine.newBuilder()
+                        .maximumSize(cacheSize)
+                        .build();
+  }
+
+  // 화면에서 사용하는 identicon 의 URL
+  //  ㄴ template 에서 th:src="@{${@identiconGenerator.url(nickName)}}" 로 사용함
+  public String url(String value) {
+    return IDENTICON_URL + hash(value);
+  }
+
+  // hash 로 만든 SVG, 잘못된 hash 이면 null
+  public byte[] svg(String hash) {
+    if (hash == null || !HASH.matcher(hash).matches()) {
+      return null;
+    }
+    return svgs.get(hash, IdenticonGenerator::render);
+  }
+
+  static String hash(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static byte[] render(String hash) {
+    // 앞 2 byte 는 색, 그 뒤의 15 bit 는 칸을 칠할지 정함
+    int hue = Integer.parseInt(hash.substring(0, 4), 16) % 360;
+    String color = String.format("#%06x", Color.HSBtoRGB(hue / 360f, 0.5f, 0.75f) & 0xffffff);
+    long bits = Long.parseLong(hash.substring(4, 8), 16);
+
+    StringBuilder svg = new StringBuilder();
+    svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"-0.5 -0.5 6 6\" shape-rendering=\"crispEdges\">")
+       .append("<rect x=\"-0.5\" y=\"-0.5\" width=\"6\" height=\"6\" fill=\"#f0f0f0\"/>")
+       .append("<g fill=\"").append(color).append("\">");
+    for (int column = 0; column < (CELLS + 1) / 2; column++) {
+      for (int row = 0; row < CELLS; row++) {
+        if ((bits >> (column * CELLS + row) & 1) == 0) {
+          continue;
+        }
+        cell(svg, column, row);
+        // 가운데 줄이 아니면 오른쪽에도 똑같이 칠함
+        if (column != CELLS - 1 - column) {
+          cell(svg, CELLS - 1 - column, row);
+        }
+      }
+    }
+    svg.append("</g></svg>");
+    return svg.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void cell(StringBuilder svg, int x, int y) {
+    svg.append("<rect x=\"").append(x).append("\" y=\"").append(y).append("\" width=\"1\" height=\"1\"/>");
+  }
+
+}
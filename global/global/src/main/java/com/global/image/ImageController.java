@@ -0,0 +1,77 @@
+package com.global.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.PathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.nio.file.Path;
+
+// ImageStore 에 저장된 image 를 보여주는 Controller
+//  - /images/** 는 SecurityConfig 에서 Spring Security 를 거치지 않도록 설정되어 있음
+@Controller
+@RequiredArgsConstructor
+public class ImageController {
+
+  // 내용이 바뀌지 않는 image 이므로 1 년 동안 browser 가 다시 요청하지 않도록 함
+  static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+  private static final MediaType SVG = MediaType.valueOf("image/svg+xml");
+
+  private final ImageStore imageStore;
+  private final IdenticonGenerator identiconGenerator;
+
+  @GetMapping(ProfileImageService.PROFILE_IMAGE_URL + "{hash}")
+  public ResponseEntity<Resource> profileImage(@PathVariable String hash) {
+    return imageStore.find(hash)
+                     .map(path -> image(hash, path))
+                     .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // 화면에서 사용하는 크기로 줄인 프로필 사진
+  //  ㄴ 줄인 image 가 없으면(Java 에서 읽을 수 없는 형식) 원본을 보여줌
+  @GetMapping(ProfileImageService.PROFILE_IMAGE_URL + "{hash}/{size}")
+  public ResponseEntity<Resource> profileThumbnail(@PathVariable String hash, @PathVariable int size) {
+    if (!ThumbnailGenerator.isSupportedSize(size)) {
+      return ResponseEntity.notFound().build();
+    }
+    String name = ProfileImageService.thumbnailName(hash, size);
+    return imageStore.find(name)
+                     .map(path -> image(name, path))
+                     .orElseGet(() -> profileImage(hash));
+  }
+
+  // 프로필 사진이 없는 회원의 identicon (IdenticonGenerator)
+  //  ㄴ 같은 hash 는 항상 같은 그림이므로 hash 를 ETag 로 사용함
+  @GetMapping(IdenticonGenerator.IDENTICON_URL + "{hash}")
+  public ResponseEntity<byte[]> identicon(@PathVariable String hash) {
+    byte[] svg = identiconGenerator.svg(hash);
+    if (svg == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok()
+                         .eTag(hash)
+                         .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                         .contentType(SVG)
+                         .body(svg);
+  }
+
+  // ETag 를 붙여서 보내면, browser 가 If-None-Match 로 다시 물어볼 때
+  // Spring 이 알아서 304 Not Modified 로 응답함 (파일을 다시 읽지 않음)
+  static ResponseEntity<Resource> image(String etag, Path path) {
+    MediaType mediaType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                                          .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    return ResponseEntity.ok()
+                         .eTag(etag)
+                         .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                         .contentType(mediaType)
+                         .body(new PathResource(path));
+  }
+
+}
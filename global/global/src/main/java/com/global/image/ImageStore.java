@@ -0,0 +1,135 @@
+package com.global.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/*
+image 를 내용(content)의 hash 값을 이름으로 해서 disk 에 저장하는 클래스
+  - 같은 image 는 한 번만 저장됨 (hash 가 같으면 이미 저장된 파일을 그대로 사용함)
+  - 한 번 저장된 파일은 바뀌지 않으므로 browser 가 오래 cache 해도 됨
+  - 파일 위치 : {저장 폴더}/{hash 앞 2 글자}/{이름}.{확장자}
+      ㄴ 한 폴더에 파일이 너무 많이 쌓이지 않도록 나눠서 저장함
+      ㄴ 이름 : 원본은 {hash}, 원본을 줄인 image 는 {hash}-{크기}
+*/
+@Component
+public class ImageStore {
+
+  // SHA-256 hash 를 16 진수로 표현한 문자열 (64 글자)
+  private static final Pattern HASH = Pattern.compile("^[0-9a-f]{64}$");
+  // 원본 hash 또는 hash 뒤에 -크기 가 붙은 이름
+  private static final Pattern NAME = Pattern.compile("^[0-9a-f]{64}(-[0-9]+)?$");
+  private static final List<String> EXTENSIONS = List.of("png", "jpg", "gif", "webp");
+
+  private final Path root;
+
+  public ImageStore(@Value("${app.image.store-dir:${java.io.tmpdir}/global-images}") String root) {
+    this.root = Paths.get(root);
+  }
+
+  // image 를 저장하고 hash 값을 return 함
+  public String store(byte[] bytes) {
+    String hash = sha256(bytes);
+    store(hash, bytes);
+    return hash;
+  }
+
+  // hash 에서 파생된 이름(예: 원본을 줄인 image)으로 저장할 때 사용함
+  public void store(String name, byte[] bytes) {
+    String extension = extensionOf(bytes);
+    if (extension == null) {
+      throw new IllegalArgumentException("지원하지 않는 image 형식입니다");
+    }
+    String fileName = name + "." + extension;
+    Path target = pathOf(name, fileName);
+    if (Files.exists(target)) {
+      return;
+    }
+    try {
+      Files.createDirectories(target.getParent());
+      // 다른 요청이 쓰고 있는 중간 상태의 파일을 읽지 않도록
+      // 임시 파일에 다 쓴 다음에 이름을 바꿈
+      Path temp = Files.createTempFile(target.getParent(), fileName, ".tmp");
+      Files.write(temp, bytes);
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // 이름({hash} 또는 {hash}-{크기})에 해당하는 image 파일을 찾음
+  public Optional<Path> find(String name) {
+    if (name == null || !NAME.matcher(name).matches()) {
+      return Optional.empty();
+    }
+    return EXTENSIONS.stream()
+                     .map(extension -> pathOf(name, name + "." + extension))
+                     .filter(Files::exists)
+                     .findFirst();
+  }
+
+  public static boolean isHash(String value) {
+    return value != null && HASH.matcher(value).matches();
+  }
+
+  private Path pathOf(String name, String fileName) {
+    if (!NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("잘못된 파일 이름입니다 : " + name);
+    }
+    return root.resolve(name.substring(0, 2)).resolve(fileName);
+  }
+
+  // 파일 앞부분(magic number)을 보고 image 형식을 알아냄
+  private static String extensionOf(byte[] bytes) {
+    if (startsWith(bytes, 0, 0x89, 'P', 'N', 'G')) {
+      return "png";
+    }
+    if (startsWith(bytes, 0, 0xFF, 0xD8, 0xFF)) {
+      return "jpg";
+    }
+    if (startsWith(bytes, 0, 'G', 'I', 'F', '8')) {
+      return "gif";
+    }
+    if (startsWith(bytes, 0, 'R', 'I', 'F', 'F') && startsWith(bytes, 8, 'W', 'E', 'B', 'P')) {
+      return "webp";
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] bytes, int offset, int... prefix) {
+    if (bytes.length < offset + prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if ((bytes[offset + i] & 0xFF) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+package com.global.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Base64;
+import java.util.Map;
+
+/*
+프로필 사진을 ImageStore 에 저장하고
+Account 에는 image 의 URL(/images/profile/{hash}) 만 저장하도록 하는 클래스
+  - 프로필 수정 화면(cropper.js)에서는 사진을 data URL(data:image/png;base64,...) 로 보냄
+  - 사진을 바꾸지 않고 저장하면 이미 저장된 URL 이 그대로 넘어옴
+  - 저장할 때 화면에서 사용하는 크기로 줄인 image 도 같이 만들어 둠
+      ㄴ /images/profile/{hash}/{크기} (크기 : ThumbnailGenerator.SIZES)
+*/
+@Service
+public class ProfileImageService {
+
+  public static final String PROFILE_IMAGE_URL = "/images/profile/";
+
+  private static final String DATA_URL_PREFIX = "data:image/";
+  private static final String BASE64_MARKER = ";base64,";
+
+  private final ImageStore imageStore;
+  private final ThumbnailGenerator thumbnailGenerator;
+  private final int maxSize;
+
+  public ProfileImageService(ImageStore imageStore,
+                             ThumbnailGenerator thumbnailGenerator,
+                             @Value("${app.image.max-size:1048576}") int maxSize) {
+    this.imageStore = imageStore;
+    this.thumbnailGenerator = thumbnailGenerator;
+    this.maxSize = maxSize;
+  }
+
+  // form 에서 넘어온 profileImage 값을 Account 에 저장할 URL 로 바꿈
+  //  ㄴ 빈 값이면 사진을 지운 것이므로 null 을 return 함
+  public String save(String profileImage) {
+    if (!StringUtils.hasText(profileImage)) {
+      return null;
+    }
+    // 이미 저장된 사진이면 다시 저장하지 않음
+    if (isStoredUrl(profileImage)) {
+      return profileImage;
+    }
+
+    byte[] bytes = decode(profileImage);
+    // 픽셀 수가 너무 큰 사진은 저장하기 전에 거절되도록 줄인 image 를 먼저 만듦
+    Map<Integer, byte[]> thumbnails = thumbnailGenerator.generate(bytes);
+    String hash = imageStore.store(bytes);
+    // 같은 사진을 다시 올린 경우에는 이미 만들어 둔 image 를 사용함
+    if (imageStore.find(thumbnailName(hash, ThumbnailGenerator.SIZES[0])).isEmpty()) {
+      thumbnails.forEach((size, thumbnail) -> imageStore.store(thumbnailName(hash, size), thumbnail));
+    }
+    return PROFILE_IMAGE_URL + hash;
+  }
+
+  public static String thumbnailName(String hash, int size) {
+    return hash + "-" + size;
+  }
+
+  private boolean isStoredUrl(String profileImage) {
+    if (!profileImage.startsWith(PROFILE_IMAGE_URL)) {
+      return false;
+    }
+    String hash = profileImage.substring(PROFILE_IMAGE_URL.length());
+    return ImageStore.isHash(hash) && imageStore.find(hash).isPresent();
+  }
+
+  private byte[] decode(String dataUrl) {
+    int marker = dataUrl.indexOf(BASE64_MARKER);
+    if (!dataUrl.startsWith(DATA_URL_PREFIX) || marker < 0) {
+      throw new IllegalArgumentException("프로필 사진 형식이 올바르지 않습니다");
+    }
+    // base64 는 3 byte 를 4 글자로 표현하므로 decode 하기 전에 크기를 먼저 확인함
+    String base64 = dataUrl.substring(marker + BASE64_MARKER.length());
+    if ((long) base64.length() * 3 / 4 > maxSize) {
+      throw new IllegalArgumentException("프로필 사진은 " + maxSize + " byte 를 넘을 수 없습니다");
+    }
+    return Base64.getDecoder().decode(base64);
+  }
+
+}
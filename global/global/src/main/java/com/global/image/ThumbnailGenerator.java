@@ -0,0 +1,152 @@
+package com.global.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+프로필 사진을 화면에서 사용하는 크기(정사각형)로 줄인 image 를 만드는 클래스
+  - 24 : 네비게이션 바, 64 : 목록, 256 : 프로필 화면
+  - 외부 library 없이 java.awt 로 처리함
+  - 투명한 부분이 없는 사진은 JPEG 로, 투명한 부분이 있으면 PNG 로 저장함 (JPEG 가 훨씬 작음)
+  - 압축된 크기(app.image.max-size)는 작아도 픽셀 수가 매우 큰 image 는 풀면 memory 를 다 써버림
+      ㄴ 먼저 header 의 가로, 세로만 읽어서 maxPixels 를 넘으면 거절함 (IllegalArgumentException)
+      ㄴ 가장 큰 크기(256)의 두 배보다 큰 image 는 건너뛰면서(subsampling) 읽음
+*/
+@Component
+public class ThumbnailGenerator {
+
+  public static final int[] SIZES = {24, 64, 256};
+
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private final long maxPixels;
+
+  public ThumbnailGenerator(@Value("${app.image.max-pixels:25000000}") long maxPixels) {
+    this.maxPixels = maxPixels;
+  }
+
+  // 크기별로 줄인 image 를 만들어서 return 함
+  //  ㄴ Java 에서 읽을 수 없는 형식(예: webp)이면 빈 Map 을 return 함 (원본을 그대로 사용함)
+  //  ㄴ 픽셀 수가 maxPixels 를 넘으면 IllegalArgumentException
+  public Map<Integer, byte[]> generate(byte[] original) {
+    BufferedImage source = read(original);
+    Map<Integer, byte[]> thumbnails = new LinkedHashMap<>();
+    if (source == null) {
+      return thumbnails;
+    }
+    BufferedImage square = cropToSquare(source);
+    boolean hasAlpha = source.getColorModel().hasAlpha();
+    for (int size : SIZES) {
+      BufferedImage resized = resize(square, size, hasAlpha);
+      thumbnails.put(size, hasAlpha ? png(resized) : jpeg(resized));
+    }
+    return thumbnails;
+  }
+
+  public static boolean isSupportedSize(int size) {
+    for (int supported : SIZES) {
+      if (supported == size) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private BufferedImage read(byte[] bytes) {
+    try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxPixels) {
+          throw new IllegalArgumentException("프로필 사진은 " + maxPixels + " 픽셀을 넘을 수 없습니다");
+        }
+        // 짧은 쪽이 가장 큰 크기의 두 배 이상 남도록 건너뛰면서 읽음 (줄였을 때의 화질은 그대로임)
+        int step = Math.max(1, Math.min(width, height) / (SIZES[SIZES.length - 1] * 2));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  // 가운데를 기준으로 정사각형으로 자름
+  private BufferedImage cropToSquare(BufferedImage image) {
+    int side = Math.min(image.getWidth(), image.getHeight());
+    return image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+  }
+
+  // 한 번에 많이 줄이면 image 가 깨져 보이므로 절반씩 여러 번 줄임
+  private BufferedImage resize(BufferedImage image, int size, boolean hasAlpha) {
+    int type = hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+    BufferedImage current = image;
+    int currentSize = image.getWidth();
+    do {
+      currentSize = Math.max(size, currentSize / 2);
+      BufferedImage next = new BufferedImage(currentSize, currentSize, type);
+      Graphics2D graphics = next.createGraphics();
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(current, 0, 0, currentSize, currentSize, null);
+      graphics.dispose();
+      current = next;
+    } while (currentSize != size);
+    return current;
+  }
+
+  private byte[] png(BufferedImage image) {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ImageIO.write(image, "png", out);
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private byte[] jpeg(BufferedImage image) {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ImageWriteParam param = writer.getDefaultWriteParam();
+    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    param.setCompressionQuality(JPEG_QUALITY);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+}
@@ -55,6 +55,9 @@ public class ConsoleMailSender implements JavaMailSender {
 
   @Override
   public void send(SimpleMailMessage... simpleMailMessages) throws MailException {
-
+    // MailDispatcher 가 여러 통을 모아서 보낼 때 호출됨
+    for (SimpleMailMessage simpleMailMessage : simpleMailMessages) {
+      send(simpleMailMessage);
+    }
   }
 }
@@ -0,0 +1,253 @@
+package com.global.mail;
+
+import com.global.config.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/*
+메일을 바로 보내지 않고 queue(outbox) 에 넣어 두었다가
+별도의 worker thread 가 모아서(batch) 보내는 클래스
+  - Transaction 안에서 enqueue() 하면 commit 이 끝난 뒤에 queue 에 들어감
+      ㄴ rollback 되면 메일을 보내지 않음
+      ㄴ SMTP 서버가 느려도 DB connection 과 요청 thread 를 붙잡고 있지 않음
+  - 보내기에 실패하면 대기 시간을 두 배씩 늘리면서 다시 보냄 (backoff)
+  - queue 가 가득 차면 잠시 기다렸다가(backpressure) 그래도 자리가 없으면 버림
+      ㄴ 인증 메일은 "인증 메일 다시 보내기" 로 다시 받을 수 있음
+  - 한꺼번에 많이 보내는 곳(AccountImporter, NotificationService.notifySubscribers)은 enqueueAndWait() 를 사용함
+      ㄴ 자리가 날 때까지 기다리므로 버리지 않음 (worker 가 보내는 속도에 맞춰서 넣게 됨)
+*/
+@Slf4j
+@Component
+public class MailDispatcher {
+
+  private final JavaMailSender javaMailSender;
+  private final BlockingQueue<QueuedMail> queue;
+  private final int workerCount;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Duration backoff;
+  private final Duration offerTimeout;
+  private final boolean virtualThreads;
+
+  private final Counter sentCounter;
+  private final Counter failedCounter;
+  private final Counter droppedCounter;
+  private final Timer latencyTimer;
+
+  private ExecutorService workers;
+  private volatile boolean running;
+
+  public MailDispatcher(JavaMailSender javaMailSender,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.mail.queue-capacity:1000}") int queueCapacity,
+                        @Value("${app.mail.workers:2}") int workerCount,
+                        @Value("${app.mail.batch-size:20}") int batchSize,
+                        @Value("${app.mail.max-attempts:3}") int maxAttempts,
+                        @Value("${app.mail.backoff:500ms}") Duration backoff,
+                        @Value("${app.mail.offer-timeout:100ms}") Duration offerTimeout,
+                        @Value("${app.threads.virtual:false}") boolean virtualThreads) {
+    this.javaMailSender = javaMailSender;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.workerCount = workerCount;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.backoff = backoff;
+    this.offerTimeout = offerTimeout;
+    this.virtualThreads = virtualThreads;
+
+    Gauge.builder("mail.queue.size", queue, Collection::size)
+         .description("보내기를 기다리는 메일 수")
+         .register(meterRegistry);
+    this.sentCounter = meterRegistry.counter("mail.sent");
+    this.failedCounter = meterRegistry.counter("mail.failed");
+    this.droppedCounter = meterRegistry.counter("mail.dropped");
+    // queue 에 넣은 시점부터 실제로 보낸 시점까지 걸린 시간
+    this.latencyTimer = meterRegistry.timer("mail.latency");
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    workers = Executors.newFixedThreadPool(workerCount, threadFactory());
+    for (int i = 0; i < workerCount; i++) {
+      workers.execute(this::work);
+    }
+  }
+
+  // worker 는 대부분의 시간을 queue 와 SMTP 응답을 기다리는 데 쓰므로
+  // app.threads.virtual=true 이면 virtual thread 에서 실행함
+  private ThreadFactory threadFactory() {
+    if (virtualThreads) {
+      return VirtualThreads.threadFactory("mail-dispatcher-");
+    }
+    AtomicInteger sequence = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "mail-dispatcher-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  // application 이 종료될 때 queue 에 남은 메일을 보내고 나서 worker 를 멈춤
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (workers == null) {
+      return;
+    }
+    workers.shutdown();
+    if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+      log.warn("메일 {} 건을 보내지 못하고 종료합니다", queue.size());
+      workers.shutdownNow();
+    }
+  }
+
+  public void enqueue(SimpleMailMessage message) {
+    // Transaction 안에서 호출된 경우에는 commit 된 후에 queue 에 넣음
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          offer(message);
+        }
+      });
+      return;
+    }
+    offer(message);
+  }
+
+  // queue 에 자리가 날 때까지 기다렸다가 넣음
+  //  - Transaction 밖에서 호출해야 함 (기다리는 동안 DB connection 을 붙잡지 않도록)
+  //  - return : false 이면 application 이 종료되는 중이거나 interrupt 되어서 넣지 못함 (mail.dropped 로 셈)
+  public boolean enqueueAndWait(SimpleMailMessage message) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("enqueueAndWait 는 Transaction 밖에서 호출해야 합니다");
+    }
+    QueuedMail mail = new QueuedMail(message, System.nanoTime());
+    try {
+      while (running) {
+        if (queue.offer(mail, 200, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    droppedCounter.increment();
+    log.warn("메일 dispatcher 가 멈춰서 {} 에게 보낼 메일을 버립니다", Arrays.toString(message.getTo()));
+    return false;
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  private void offer(SimpleMailMessage message) {
+    try {
+      if (queue.offer(new QueuedMail(message, System.nanoTime()),
+                      offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    droppedCounter.increment();
+    log.warn("메일 queue 가 가득 차서 {} 에게 보낼 메일을 버립니다", Arrays.toString(message.getTo()));
+  }
+
+  private void work() {
+    List<QueuedMail> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        QueuedMail first = queue.poll(200, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        sendWithRetry(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void sendWithRetry(List<QueuedMail> batch) throws InterruptedException {
+    List<QueuedMail> pending = new ArrayList<>(batch);
+    for (int attempt = 1; ; attempt++) {
+      try {
+        javaMailSender.send(pending.stream()
+                                   .map(QueuedMail::getMessage)
+                                   .toArray(SimpleMailMessage[]::new));
+        record(pending);
+        return;
+      } catch (MailException e) {
+        List<QueuedMail> failed = failedOf(pending, e);
+        pending.removeAll(failed);
+        record(pending);
+        pending = failed;
+
+        if (attempt >= maxAttempts) {
+          failedCounter.increment(failed.size());
+          log.error("메일 {} 건을 {} 번 시도했지만 보내지 못했습니다", failed.size(), attempt, e);
+          return;
+        }
+        log.warn("메일 {} 건 보내기 실패 ({} 번째 시도), 다시 보냅니다", failed.size(), attempt);
+        Thread.sleep(backoff.toMillis() << (attempt - 1));
+      }
+    }
+  }
+
+  // 여러 통 중에서 일부만 실패한 경우에는 실패한 메일만 다시 보냄
+  private List<QueuedMail> failedOf(List<QueuedMail> pending, MailException e) {
+    if (e instanceof MailSendException && !((MailSendException) e).getFailedMessages().isEmpty()) {
+      Collection<Object> failedMessages = ((MailSendException) e).getFailedMessages().keySet();
+      List<QueuedMail> failed = pending.stream()
+                                       .filter(mail -> failedMessages.contains(mail.getMessage()))
+                                       .collect(Collectors.toList());
+      if (!failed.isEmpty()) {
+        return failed;
+      }
+    }
+    return new ArrayList<>(pending);
+  }
+
+  private void record(List<QueuedMail> sent) {
+    long now = System.nanoTime();
+    for (QueuedMail mail : sent) {
+      latencyTimer.record(now - mail.getQueuedAt(), TimeUnit.NANOSECONDS);
+    }
+    sentCounter.increment(sent.size());
+  }
+
+}
@@ -0,0 +1,14 @@
+package com.global.mail;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.SimpleMailMessage;
+
+// MailDispatcher 의 queue 에 들어가는 메일
+//  ㄴ queuedAt : queue 에 넣은 시점 (System.nanoTime()), 보내기까지 걸린 시간을 잴 때 사용함
+@Getter
+@RequiredArgsConstructor
+class QueuedMail {
+  private final SimpleMailMessage message;
+  private final long queuedAt;
+}
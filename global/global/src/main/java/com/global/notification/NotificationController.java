@@ -0,0 +1,80 @@
+package com.global.notification;
+
+import com.global.account.UserAccount;
+import com.global.domain.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 웹 알림 목록과 읽음 처리
+//  - 목록은 page 번호 대신 앞 page 의 마지막 알림(createdAt, id)으로 다음 page 를 조회함 (keyset pagination)
+//  - 로그인한 회원의 id 는 session 의 UserAccount 에 있으므로 Account 를 조회하지 않음
+@Controller
+public class NotificationController {
+
+  static final String NOTIFICATIONS_URL = "/notifications";
+  static final String NOTIFICATIONS_VIEW = "notification/list";
+
+  private final NotificationService notificationService;
+  private final UnreadNotificationCounter unreadNotificationCounter;
+  private final int pageSize;
+
+  public NotificationController(NotificationService notificationService,
+                                UnreadNotificationCounter unreadNotificationCounter,
+                                @Value("${app.notification.page-size:20}") int pageSize) {
+    this.notificationService = notificationService;
+    this.unreadNotificationCounter = unreadNotificationCounter;
+    this.pageSize = pageSize;
+  }
+
+  // 읽지 않은 알림
+  @GetMapping(NOTIFICATIONS_URL)
+  public String newNotifications(@AuthenticationPrincipal UserAccount userAccount,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAt,
+                                 @RequestParam(required = false) Long id,
+                                 Model model) {
+    return list(userAccount, false, createdAt, id, model);
+  }
+
+  // 읽은 알림
+  @GetMapping(NOTIFICATIONS_URL + "/old")
+  public String oldNotifications(@AuthenticationPrincipal UserAccount userAccount,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAt,
+                                 @RequestParam(required = false) Long id,
+                                 Model model) {
+    return list(userAccount, true, createdAt, id, model);
+  }
+
+  // ids 를 넘기지 않으면 읽지 않은 알림을 모두 읽음 처리함 (한 번의 update)
+  @PostMapping(NOTIFICATIONS_URL + "/read")
+  public String markAsRead(@AuthenticationPrincipal UserAccount userAccount,
+                           @RequestParam(required = false) List<Long> ids) {
+    notificationService.markAsRead(userAccount.getAccountId(), ids);
+    return "redirect:" + NOTIFICATIONS_URL;
+  }
+
+  private String list(UserAccount userAccount, boolean checked, LocalDateTime createdAt, Long id, Model model) {
+    // 다음 page 가 있는지 알 수 있도록 하나 더 조회함
+    List<Notification> notifications = notificationService.list(userAccount.getAccountId(), checked,
+                                                                createdAt, id, pageSize + 1);
+    boolean hasNext = notifications.size() > pageSize;
+    if (hasNext) {
+      notifications = notifications.subList(0, pageSize);
+      model.addAttribute("next", notifications.get(pageSize - 1));
+    }
+    model.addAttribute("notifications", notifications);
+    model.addAttribute("checked", checked);
+    model.addAttribute("unreadCount", unreadNotificationCounter.get(userAccount.getAccountId()));
+    return NOTIFICATIONS_VIEW;
+  }
+
+}
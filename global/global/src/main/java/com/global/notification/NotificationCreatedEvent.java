@@ -0,0 +1,11 @@
+package com.global.notification;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 알림을 저장했을 때 NotificationService 가 발행하는 event
+@Getter
+@RequiredArgsConstructor
+public class NotificationCreatedEvent {
+  private final Long accountId;
+}
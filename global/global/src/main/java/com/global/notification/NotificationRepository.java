@@ -0,0 +1,49 @@
+package com.global.notification;
+
+import com.global.domain.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+  // UnreadNotificationCounter 에 없는 회원만 DB 에서 셈
+  long countByAccountIdAndCheckedFalse(Long accountId);
+
+  // 알림 목록의 첫 page
+  List<Notification> findByAccountIdAndCheckedOrderByCreatedAtDescIdDesc(Long accountId, boolean checked, Pageable pageable);
+
+  // 알림 목록의 다음 page (keyset pagination)
+  //  ㄴ 앞 page 의 마지막 알림(createdAt, id)보다 오래된 알림만 조회하므로 page 가 뒤로 가도 offset 만큼 건너뛰지 않음
+  //  ㄴ Pageable 은 가져오는 개수(limit)로만 사용함
+  @Query("select n from Notification n where n.account.id = :accountId and n.checked = :checked"
+       + " and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))"
+       + " order by n.createdAt desc, n.id desc")
+  List<Notification> findPage(@Param("accountId") Long accountId, @Param("checked") boolean checked,
+                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                              Pageable pageable);
+
+  // 회원의 읽지 않은 알림을 한 번의 update 로 읽음 처리함
+  //  ㄴ return : 바뀐 row 수 (UnreadNotificationCounter 에서 그만큼 뺌)
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Notification n set n.checked = true where n.account.id = :accountId and n.checked = false")
+  int markAllAsRead(@Param("accountId") Long accountId);
+
+  // 회원의 알림 중 ids 에 해당하는 읽지 않은 알림만 읽음 처리함
+  //  ㄴ 다른 회원의 알림 id 가 넘어와도 바뀌지 않음
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Notification n set n.checked = true"
+       + " where n.account.id = :accountId and n.checked = false and n.id in :ids")
+  int markAsRead(@Param("accountId") Long accountId, @Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,119 @@
+package com.global.notification;
+
+import com.global.account.AccountRepository;
+import com.global.domain.Account;
+import com.global.domain.Notification;
+import com.global.domain.NotificationChannel;
+import com.global.domain.NotificationType;
+import com.global.mail.MailDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// 웹 알림을 저장하고, 목록을 조회하고, 읽음 처리하는 Service
+//  - 읽지 않은 알림 수는 UnreadNotificationCounter 가 event 로 바꿈
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class NotificationService {
+
+  private final NotificationRepository notificationRepository;
+  private final NotificationSubscribers notificationSubscribers;
+  private final AccountRepository accountRepository;
+  private final MailDispatcher mailDispatcher;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+
+  // 회원이 이 종류의 알림을 웹으로 받겠다고 설정한 경우에만 저장함
+  //  ㄴ return : 저장한 알림, 받지 않는 알림이면 null
+  public Notification notify(Account account, NotificationType type, String title, String message, String link) {
+    if (!account.isNotified(type, NotificationChannel.WEB)) {
+      return null;
+    }
+    Notification notification = notificationRepository.save(Notification.builder()
+                                                                         .account(account)
+                                                                         .notificationType(type)
+                                                                         .title(title)
+                                                                         .message(message)
+                                                                         .link(link)
+                                                                         .createdAt(LocalDateTime.now())
+                                                                         .build());
+    eventPublisher.publishEvent(new NotificationCreatedEvent(account.getId()));
+    return notification;
+  }
+
+  // type 의 알림을 받겠다고 설정한 회원 모두에게 알림을 보냄 (예 : 스터디가 새로 만들어졌을 때)
+  //  - 받는 회원은 NotificationSubscribers 가 id, email 만 나눠서 조회함
+  //  - 웹 : chunk 마다 따로 Transaction 을 열고 commit 함 (회원마다 알림을 저장함)
+  //      ㄴ Account 는 조회하지 않고 id 로 참조(proxy)만 만듦
+  //      ㄴ commit 하면 persistence context 도 닫히므로 저장한 알림이 수만 개여도 memory 에 쌓이지 않음
+  //  - 이메일 : Transaction 밖에서 MailDispatcher 의 queue 에 자리가 날 때까지 기다리면서 넣음 (버리지 않음)
+  //  - 호출한 쪽의 Transaction 에 묶이지 않으므로(NOT_SUPPORTED) 알림을 보내게 된 작업이 commit 된 뒤에 호출할 것
+  //  ㄴ return : 저장한 웹 알림 수
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public int notifySubscribers(NotificationType type, String title, String message, String link) {
+    LocalDateTime createdAt = LocalDateTime.now();
+    int saved = notificationSubscribers.forEachChunk(type, NotificationChannel.WEB, chunk -> {
+      transactionTemplate.executeWithoutResult(status -> {
+        List<Notification> notifications = new ArrayList<>(chunk.size());
+        for (AccountRepository.Subscriber subscriber : chunk) {
+          notifications.add(Notification.builder()
+                                        .account(accountRepository.getReferenceById(subscriber.getId()))
+                                        .notificationType(type)
+                                        .title(title)
+                                        .message(message)
+                                        .link(link)
+                                        .createdAt(createdAt)
+                                        .build());
+        }
+        // commit 할 때 insert 를 한꺼번에 실행함 (JDBC batch)
+        notificationRepository.saveAll(notifications);
+        chunk.forEach(subscriber -> eventPublisher.publishEvent(new NotificationCreatedEvent(subscriber.getId())));
+      });
+    });
+    notificationSubscribers.forEachChunk(type, NotificationChannel.EMAIL, chunk -> {
+      for (AccountRepository.Subscriber subscriber : chunk) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setTo(subscriber.getEmail());
+        mailMessage.setSubject(title);
+        mailMessage.setText(message == null ? link : message + "\n" + link);
+        mailDispatcher.enqueueAndWait(mailMessage);
+      }
+    });
+    return saved;
+  }
+
+  // 최신 알림부터 size 개를 조회함
+  //  ㄴ createdAt, id : 앞 page 의 마지막 알림, null 이면 첫 page
+  @Transactional(readOnly = true)
+  public List<Notification> list(Long accountId, boolean checked, LocalDateTime createdAt, Long id, int size) {
+    PageRequest limit = PageRequest.of(0, size);
+    if (createdAt == null || id == null) {
+      return notificationRepository.findByAccountIdAndCheckedOrderByCreatedAtDescIdDesc(accountId, checked, limit);
+    }
+    return notificationRepository.findPage(accountId, checked, createdAt, id, limit);
+  }
+
+  // ids 가 비어 있으면 읽지 않은 알림을 모두 읽음 처리함
+  //  ㄴ return : 읽음으로 바뀐 알림 수
+  public int markAsRead(Long accountId, Collection<Long> ids) {
+    int count = ids == null || ids.isEmpty()
+                ? notificationRepository.markAllAsRead(accountId)
+                : notificationRepository.markAsRead(accountId, ids);
+    if (count > 0) {
+      eventPublisher.publishEvent(new NotificationsReadEvent(accountId, count));
+    }
+    return count;
+  }
+
+}
@@ -0,0 +1,53 @@
+package com.global.notification;
+
+import com.global.account.AccountRepository;
+import com.global.domain.NotificationChannel;
+import com.global.domain.NotificationType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+어떤 알림을 어떤 방법(이메일, 웹)으로 받겠다고 설정한 회원을 찾는 클래스
+  - Account entity 대신 id, email 만 chunk-size 명씩 조회해서 넘김
+      ㄴ 받는 회원이 수천 명이어도 한꺼번에 메모리에 올리지 않음
+  - 다음 chunk 는 앞 chunk 의 마지막 id 다음부터 조회함 (keyset, offset 을 건너뛰지 않음)
+  - chunk 마다 따로 조회하므로 긴 Transaction 이나 열린 DB cursor 를 붙잡고 있지 않음
+*/
+@Component
+public class NotificationSubscribers {
+
+  private final AccountRepository accountRepository;
+  private final int chunkSize;
+
+  public NotificationSubscribers(AccountRepository accountRepository,
+                                 @Value("${app.notification.subscriber-chunk-size:500}") int chunkSize) {
+    this.accountRepository = accountRepository;
+    this.chunkSize = chunkSize;
+  }
+
+  // return : 넘긴 회원 수
+  public int forEachChunk(NotificationType type, NotificationChannel channel,
+                          Consumer<List<AccountRepository.Subscriber>> consumer) {
+    List<Integer> preferences = type.preferencesWith(channel);
+    PageRequest limit = PageRequest.of(0, chunkSize);
+    long afterId = 0;
+    int count = 0;
+    while (true) {
+      List<AccountRepository.Subscriber> chunk = accountRepository.findSubscribers(preferences, afterId, limit);
+      if (chunk.isEmpty()) {
+        return count;
+      }
+      consumer.accept(chunk);
+      count += chunk.size();
+      if (chunk.size() < chunkSize) {
+        return count;
+      }
+      afterId = chunk.get(chunk.size() - 1).getId();
+    }
+  }
+
+}
@@ -0,0 +1,13 @@
+package com.global.notification;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 알림을 읽음 처리했을 때 NotificationService 가 발행하는 event
+//  ㄴ count : 읽음으로 바뀐 알림 수
+@Getter
+@RequiredArgsConstructor
+public class NotificationsReadEvent {
+  private final Long accountId;
+  private final int count;
+}
@@ -0,0 +1,56 @@
+package com.global.notification;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+회원별 읽지 않은 알림 수를 memory 에 보관하는 클래스
+  - 모든 화면의 main-nav(알림 종 모양)에서 사용하므로 화면마다 count(*) 를 실행하지 않음
+  - 처음 조회할 때만 DB 에서 세고, 그 다음부터는 NotificationService 가 발행하는 event 로 늘리거나 줄임
+      ㄴ @TransactionalEventListener : commit 된 뒤에만 바꿈 (rollback 되면 바꾸지 않음)
+  - DB 에서 세는 중에 commit 된 알림이 있으면 값이 조금 틀릴 수 있으므로
+    ttl 이 지나면 지우고 다음에 조회할 때 다시 셈
+  - 오래 조회하지 않은 회원부터 지움 (최대 max-size 명)
+*/
+@Component
+public class UnreadNotificationCounter {
+
+  private final LoadingCache<Long, AtomicLong> counts;
+
+  public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                   @Value("${app.notification.unread-count.max-size:10000}") long maxSize,
+                                   @Value("${app.notification.unread-count.ttl:10m}") Duration ttl) {
+    this.counts = Caffeine.newBuilder()
+                          .maximumSize(maxSize)
+                          .expireAfterWrite(ttl)
+                          .build(accountId -> new AtomicLong(notificationRepository.countByAccountIdAndCheckedFalse(accountId)));
+  }
+
+  public long get(Long accountId) {
+    return counts.get(accountId).get();
+  }
+
+  // memory 에 없는 회원은 다음에 조회할 때 DB 에서 세므로 바꾸지 않음
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onNotificationCreated(NotificationCreatedEvent event) {
+    AtomicLong count = counts.getIfPresent(event.getAccountId());
+    if (count != null) {
+      count.incrementAndGet();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onNotificationsRead(NotificationsReadEvent event) {
+    AtomicLong count = counts.getIfPresent(event.getAccountId());
+    if (count != null) {
+      count.updateAndGet(current -> Math.max(0, current - event.getCount()));
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.global.search;
+
+import java.util.Arrays;
+
+/*
+term 하나가 들어 있는 문서 번호와 가중치를 int 배열에 담는 posting list (InvertedIndex)
+  - 문서 번호는 늘어나는 순서로만 추가되므로 항상 정렬되어 있음
+  - Integer 객체 대신 int 배열을 사용하므로 문서가 많아도 객체가 늘어나지 않고,
+    검색할 때 배열을 순서대로 읽음
+*/
+final class IntPostingList {
+
+  private int[] docs = new int[4];
+  private int[] weights = new int[4];
+  private int size;
+
+  void add(int doc, int weight) {
+    if (size > 0 && docs[size - 1] >= doc) {
+      throw new IllegalArgumentException("문서 번호는 늘어나는 순서로 추가해야 합니다 : " + doc);
+    }
+    if (size == docs.length) {
+      docs = Arrays.copyOf(docs, size * 2);
+      weights = Arrays.copyOf(weights, size * 2);
+    }
+    docs[size] = doc;
+    weights[size] = weight;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int doc(int index) {
+    return docs[index];
+  }
+
+  int weight(int index) {
+    return weights[index];
+  }
+
+  // from 부터 찾아서 문서 번호가 target 이상인 첫 위치, 없으면 size()
+  //  ㄴ 1, 2, 4, 8 ... 칸씩 건너뛰면서 범위를 찾은 다음 그 안에서 이진 탐색함 (galloping search)
+  //  ㄴ 짧은 list 를 기준으로 긴 list 를 따라갈 때 긴 list 를 처음부터 끝까지 읽지 않음
+  int advance(int from, int target) {
+    int low = from;
+    int step = 1;
+    int high = from;
+    while (high < size && docs[high] < target) {
+      low = high + 1;
+      high = from + step;
+      step <<= 1;
+    }
+    if (high >= size) {
+      high = size;
+    }
+    int index = Arrays.binarySearch(docs, low, high, target);
+    return index >= 0 ? index : -index - 1;
+  }
+
+}
@@ -0,0 +1,225 @@
+package com.global.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/*
+memory 에 보관하는 역색인(inverted index) : term --> 그 term 이 들어 있는 문서 번호 목록(IntPostingList)
+  - 검색할 때 DB 에서 like '%검색어%' 로 모든 row 를 읽지 않고,
+    검색어의 term 마다 posting list 만 읽으므로 문서가 늘어나도 검색 시간이 거의 늘지 않음
+  - 문서마다 0 부터 늘어나는 문서 번호(int)를 붙임 (id 는 idOf 로 문서에서 꺼냄)
+      ㄴ 문서를 바꾸면(put) 예전 번호는 지운 것으로 표시하고 새 번호로 다시 넣음
+      ㄴ 지운 문서가 남은 문서보다 많아지면 남은 문서만으로 다시 만듦 (compact)
+  - analyzer : 문서를 term --> 가중치로 바꾸는 함수 (검색 결과의 순위에 사용함)
+  - 검색은 여러 thread 에서 동시에 할 수 있고, 바꾸는 동안에는 기다림 (ReadWriteLock)
+*/
+public class InvertedIndex<T> {
+
+  // 지운 문서가 이보다 적으면 compact 하지 않음
+  private static final int MIN_REMOVED_TO_COMPACT = 1024;
+
+  private final ToLongFunction<T> idOf;
+  private final Function<T, Map<String, Integer>> analyzer;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, IntPostingList> postings = new HashMap<>();
+  // 문서 번호 --> 문서 (지운 문서는 null)
+  private final List<T> documents = new ArrayList<>();
+  // id --> 문서 번호
+  private final Map<Long, Integer> docNumbers = new HashMap<>();
+  private int removed;
+
+  public InvertedIndex(ToLongFunction<T> idOf, Function<T, Map<String, Integer>> analyzer) {
+    this.idOf = idOf;
+    this.analyzer = analyzer;
+  }
+
+  // 문서를 넣거나, 같은 id 의 문서가 이미 있으면 바꿈
+  public void put(T document) {
+    Map<String, Integer> terms = analyzer.apply(document);
+    lock.writeLock().lock();
+    try {
+      removeDocument(idOf.applyAsLong(document));
+      addDocument(document, terms);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(id);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 모두 지우고 documents 로 다시 만듦 (서버가 시작될 때)
+  //  ㄴ 다 만들 때까지 검색과 put() 은 기다림
+  //  ㄴ return : 넣은 문서 수
+  public int rebuild(Stream<T> documents) {
+    lock.writeLock().lock();
+    try {
+      clear();
+      documents.forEach(document -> {
+        removeDocument(idOf.applyAsLong(document));
+        addDocument(document, analyzer.apply(document));
+      });
+      compactIfNeeded();
+      return docNumbers.size();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 들어 있는 문서 수 (지운 문서는 세지 않음)
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return docNumbers.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /*
+  query 의 term 이 모두 들어 있는 문서를 점수가 높은 순서로 offset 부터 limit 개 찾음
+    - 점수 : 문서에 들어 있는 query term 의 가중치 합, 점수가 같으면 나중에 넣은(바꾼) 문서부터
+    - posting list 가 가장 짧은 term 부터 읽고, 나머지 list 에서는 그 문서 번호로 건너뜀
+        ㄴ 읽는 양이 가장 드문 term 의 문서 수에 비례함
+    - 상위 offset + limit 개만 heap 에 남기므로 결과가 많아도 모두 정렬하지 않음
+  */
+  public Hits<T> search(String query, int offset, int limit) {
+    if (offset < 0 || limit < 1) {
+      throw new IllegalArgumentException("offset 은 0 이상, limit 은 1 이상이어야 합니다");
+    }
+    Set<String> terms = NGramTokenizer.tokenize(query);
+    if (terms.isEmpty()) {
+      return Hits.empty();
+    }
+    lock.readLock().lock();
+    try {
+      IntPostingList[] lists = new IntPostingList[terms.size()];
+      int i = 0;
+      for (String term : terms) {
+        IntPostingList list = postings.get(term);
+        if (list == null) {
+          return Hits.empty();
+        }
+        lists[i++] = list;
+      }
+      Arrays.sort(lists, Comparator.comparingInt(IntPostingList::size));
+
+      // offset + limit 이 int 범위를 넘으면 Integer.MAX_VALUE (결과를 모두 남김)
+      int top = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+      // 점수(상위 32 bit)와 문서 번호(하위 32 bit)를 long 하나에 담아서 비교함
+      PriorityQueue<Long> heap = new PriorityQueue<>(Math.min(top, lists[0].size()) + 1);
+      int[] cursors = new int[lists.length];
+      int total = 0;
+      IntPostingList rarest = lists[0];
+      for (int p = 0; p < rarest.size(); p++) {
+        int doc = rarest.doc(p);
+        if (documents.get(doc) == null) {
+          continue;
+        }
+        int score = rarest.weight(p);
+        boolean matched = true;
+        for (int j = 1; j < lists.length && matched; j++) {
+          cursors[j] = lists[j].advance(cursors[j], doc);
+          matched = cursors[j] < lists[j].size() && lists[j].doc(cursors[j]) == doc;
+          if (matched) {
+            score += lists[j].weight(cursors[j]);
+          }
+        }
+        if (!matched) {
+          continue;
+        }
+        total++;
+        heap.add(((long) score << 32) | doc);
+        if (heap.size() > top) {
+          heap.poll();
+        }
+      }
+
+      List<T> page = new ArrayList<>(limit);
+      List<Long> ranked = new ArrayList<>(heap);
+      ranked.sort(Collections.reverseOrder());
+      for (int r = offset; r < ranked.size(); r++) {
+        page.add(documents.get((int) (long) ranked.get(r)));
+      }
+      return new Hits<>(page, total);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void clear() {
+    postings.clear();
+    documents.clear();
+    docNumbers.clear();
+    removed = 0;
+  }
+
+  private void addDocument(T document, Map<String, Integer> terms) {
+    int doc = documents.size();
+    documents.add(document);
+    docNumbers.put(idOf.applyAsLong(document), doc);
+    terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new IntPostingList()).add(doc, weight));
+  }
+
+  private void removeDocument(long id) {
+    Integer doc = docNumbers.remove(id);
+    if (doc != null) {
+      documents.set(doc, null);
+      removed++;
+    }
+  }
+
+  // 지운 문서의 번호는 posting list 에 남아 있으므로, 많아지면 남은 문서만으로 다시 만듦
+  private void compactIfNeeded() {
+    if (removed < MIN_REMOVED_TO_COMPACT || removed < docNumbers.size()) {
+      return;
+    }
+    List<T> liveDocuments = new ArrayList<>(docNumbers.size());
+    for (T document : documents) {
+      if (document != null) {
+        liveDocuments.add(document);
+      }
+    }
+    clear();
+    for (T document : liveDocuments) {
+      addDocument(document, analyzer.apply(document));
+    }
+  }
+
+  // 검색 결과 : 이 page 의 문서와, 조건에 맞는 전체 문서 수
+  @Getter
+  @RequiredArgsConstructor
+  public static class Hits<T> {
+    private final List<T> documents;
+    private final int total;
+
+    static <T> Hits<T> empty() {
+      return new Hits<>(List.of(), 0);
+    }
+  }
+
+}
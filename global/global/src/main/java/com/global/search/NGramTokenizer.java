@@ -0,0 +1,50 @@
+package com.global.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+검색어와 검색할 문장을 bigram(글자 2 개씩) term 으로 나누는 클래스
+  - 한글은 띄어쓰기나 조사 때문에 단어 단위로 나누면 "스프링" 으로 "스프링부트" 를 찾을 수 없으므로
+    글자 단위로 겹치게 나눔 : "스프링부트" --> 스프, 프링, 링부, 부트
+  - 글자(한글 음절, 자모 ㄱ-ㅎ, 영문)와 숫자가 아닌 문자(공백, -, 특수문자)에서 끊음
+      ㄴ 끊은 조각이 한 글자이면 그 글자를 그대로 term 으로 사용함 ("김 철수" --> 김, 철수)
+  - 영문은 소문자로 바꿈
+  - 같은 term 은 한 번만 넣음 (순서는 처음 나온 순서)
+*/
+public final class NGramTokenizer {
+
+  private NGramTokenizer() {
+  }
+
+  public static Set<String> tokenize(String text) {
+    Set<String> terms = new LinkedHashSet<>();
+    if (text == null) {
+      return terms;
+    }
+    String normalized = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= normalized.length(); i++) {
+      boolean letterOrDigit = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+      if (letterOrDigit && start < 0) {
+        start = i;
+      } else if (!letterOrDigit && start >= 0) {
+        addBigrams(normalized, start, i, terms);
+        start = -1;
+      }
+    }
+    return terms;
+  }
+
+  private static void addBigrams(String text, int start, int end, Set<String> terms) {
+    if (end - start == 1) {
+      terms.add(text.substring(start, end));
+      return;
+    }
+    for (int i = start; i + 2 <= end; i++) {
+      terms.add(text.substring(i, i + 2));
+    }
+  }
+
+}
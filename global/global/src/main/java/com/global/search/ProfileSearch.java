@@ -0,0 +1,100 @@
+package com.global.search;
+
+import com.global.account.AccountCreatedEvent;
+import com.global.account.AccountRepository;
+import com.global.account.AccountVerifiedEvent;
+import com.global.account.ProfileUpdatedEvent;
+import com.global.account.PublicProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+회원 프로필(nickName, 직업, 지역, 한 줄 소개)을 검색하는 클래스 (/search/study)
+  - 서버가 시작되면 DB 의 프로필을 모두 InvertedIndex 에 넣고,
+    그 다음부터는 AccountService 가 발행하는 event 로 바뀐 회원만 다시 넣음
+      ㄴ AccountImporter 로 가져온 회원은 event 가 없지만, 가져오기는 서버가 시작되는 중에 끝나므로 여기서 들어감
+      ㄴ @TransactionalEventListener : commit 된 뒤에만 바꿈 (rollback 되면 바꾸지 않음)
+      ㄴ 색인은 서버(JVM)마다 따로 있고 event 도 그 서버 안에서만 전달됨
+         서버가 여러 대이면 다른 서버에서 가입, 인증, 프로필 수정한 회원은 이 서버를 다시 시작할 때까지 예전 값으로 검색됨
+  - 검색할 때는 DB 를 조회하지 않음 (결과도 색인에 넣어 둔 PublicProfile 을 그대로 사용함)
+  - 가중치 : nickName 3, 직업과 지역 2, 한 줄 소개 1 (같은 term 이 여러 곳에 있으면 큰 값)
+*/
+@Slf4j
+@Component
+public class ProfileSearch {
+
+  private final AccountRepository accountRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final InvertedIndex<PublicProfile> index = new InvertedIndex<>(PublicProfile::getId, ProfileSearch::analyze);
+
+  public ProfileSearch(AccountRepository accountRepository, PlatformTransactionManager transactionManager) {
+    this.accountRepository = accountRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  public InvertedIndex.Hits<PublicProfile> search(String keyword, int offset, int limit) {
+    return index.search(keyword, offset, limit);
+  }
+
+  // 서버가 시작되면 가입한 회원의 프로필을 모두 넣음
+  //  ㄴ Stream 으로 조회하므로 JPA 가 조회한 row 를 한꺼번에 들고 있지 않음
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Integer count = readOnlyTransaction.execute(status -> {
+      try (Stream<PublicProfile> profiles = accountRepository.streamPublicProfiles()) {
+        return index.rebuild(profiles);
+      }
+    });
+    log.info("검색 색인에 프로필 {} 개를 넣었습니다", count);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAccountCreated(AccountCreatedEvent event) {
+    reindex(event.getAccountId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAccountVerified(AccountVerifiedEvent event) {
+    reindex(event.getAccountId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProfileUpdated(ProfileUpdatedEvent event) {
+    reindex(event.getAccountId());
+  }
+
+  private void reindex(Long accountId) {
+    PublicProfile profile = accountRepository.findPublicProfileById(accountId);
+    if (profile == null) {
+      index.remove(accountId);
+    } else {
+      index.put(profile);
+    }
+  }
+
+  private static Map<String, Integer> analyze(PublicProfile profile) {
+    Map<String, Integer> terms = new HashMap<>();
+    addTerms(terms, profile.getBio(), 1);
+    addTerms(terms, profile.getOccupation(), 2);
+    addTerms(terms, profile.getLocation(), 2);
+    addTerms(terms, profile.getNickName(), 3);
+    return terms;
+  }
+
+  private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+    for (String term : NGramTokenizer.tokenize(text)) {
+      terms.merge(term, weight, Math::max);
+    }
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.global.search;
+
+import com.global.account.PublicProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+// main-nav 의 검색 form 이 keyword 를 보내는 곳
+//  - 아직 스터디가 없으므로 회원 프로필을 검색함 (ProfileSearch)
+//  - DB 를 조회하지 않으므로 로그인하지 않은 사용자도 검색할 수 있음
+//  - keyword 가 길면 앞의 MAX_KEYWORD_LENGTH 글자만 사용함 (term 이 많으면 검색이 느려짐)
+@Controller
+public class SearchController {
+
+  static final String SEARCH_URL = "/search/study";
+  static final String SEARCH_VIEW = "search";
+  static final int MAX_KEYWORD_LENGTH = 50;
+
+  private final ProfileSearch profileSearch;
+  private final int pageSize;
+
+  public SearchController(ProfileSearch profileSearch,
+                          @Value("${app.search.page-size:20}") int pageSize) {
+    this.profileSearch = profileSearch;
+    this.pageSize = pageSize;
+  }
+
+  // page : 0 부터 시작함
+  @GetMapping(SEARCH_URL)
+  public String search(@RequestParam(defaultValue = "") String keyword,
+                       @RequestParam(defaultValue = "0") int page, Model model) {
+    String trimmed = keyword.strip();
+    if (trimmed.length() > MAX_KEYWORD_LENGTH) {
+      trimmed = trimmed.substring(0, MAX_KEYWORD_LENGTH);
+    }
+    int currentPage = Math.max(page, 0);
+    // page 가 아주 크면 currentPage * pageSize 가 int 범위를 넘으므로 long 으로 계산함
+    //  ㄴ int 보다 크면 결과보다 뒤이므로 Integer.MAX_VALUE 로 줄여도 빈 page 가 됨 (total 은 그대로)
+    int offset = (int) Math.min((long) currentPage * pageSize, Integer.MAX_VALUE);
+    InvertedIndex.Hits<PublicProfile> hits = profileSearch.search(trimmed, offset, pageSize);
+
+    model.addAttribute("keyword", trimmed);
+    model.addAttribute("profiles", hits.getDocuments());
+    model.addAttribute("total", hits.getTotal());
+    model.addAttribute("page", currentPage);
+    model.addAttribute("hasNext", ((long) currentPage + 1) * pageSize < hits.getTotal());
+    return SEARCH_VIEW;
+  }
+
+}
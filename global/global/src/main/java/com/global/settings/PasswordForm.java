@@ -12,4 +12,7 @@ public class PasswordForm {
   @Length(min=8, max=50)
   private String newPasswordConfirm;
 
+  // form 을 열었을 때의 버전 (다른 곳에서 먼저 수정했는지 확인함)
+  private Integer version;
+
 }
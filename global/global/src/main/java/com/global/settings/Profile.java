@@ -0,0 +1,32 @@
+package com.global.settings;
+
+import com.global.domain.Account;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+@Data
+@NoArgsConstructor
+public class Profile {
+  @Length(max = 35)
+  private String bio;
+  @Length(max = 50)
+  private String url;
+  @Length(max = 50)
+  private String occupation;
+  @Length(max = 50)
+  private String location;
+  private String profileImage;
+  // form 을 열었을 때 Account 의 버전 (hidden input 으로 다시 넘어옴)
+  //  ㄴ 저장할 때 DB 의 버전과 다르면 다른 곳에서 먼저 수정한 것임 (AccountService.updateProfile)
+  private Integer version;
+
+  public Profile(Account account) {
+    this.bio = account.getBio();
+    this.url = account.getUrl();
+    this.occupation = account.getOccupation();
+    this.location = account.getLocation();
+    this.profileImage = account.getProfileImage();
+    this.version = account.getVersion();
+  }
+}
@@ -1,9 +1,13 @@
 package com.global.settings;
 
+import com.global.account.AccountRepository;
 import com.global.account.AccountService;
-import com.global.account.CurrentUser;
-import com.global.domain.Account;
+import com.global.account.PublicProfile;
+import com.global.account.UserAccount;
+import com.global.config.PasswordEncoderBusyException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 
@@ -49,20 +54,22 @@ public class SettingsController {
 
   // Service type 의 멤버변수 선언
   private final AccountService accountService;
+  private final AccountRepository accountRepository;
 
   // 주소표시줄에
   // /settings/profile 요청이 들어오면
   // 자동으로 호출되는 메소드
-  // @CurrentUser  <-- 현재 user(현재 login 상태에 있는 회원)
-  //                   정보를 가져오기 위한 Annotation
+  // @AuthenticationPrincipal UserAccount <-- 현재 user(현재 login 상태에 있는 회원)
+  //                                          정보를 가져오기 위한 Annotation (session 의 principal)
+  // 화면에는 Account entity 대신 화면에 필요한 값만 담은 객체를 넘김 (open-in-view 를 끔)
+  //  ㄴ "account" : 화면 제목에 보여주는 nickName 등 (PublicProfile)
+  //  ㄴ "profile" : form 에 채우는 값, AccountService 가 Transaction 안에서 만듦
   @GetMapping(SETTINGS_PROFILE_URL)
-  public String updateProfileForm(@CurrentUser Account account, Model model){
-    // model.addAttribute("account", account); 아래의 code 와 같은 기능을 함
-    // attributeName 이 자동으로 "account" 라고 지어짐
-    model.addAttribute(account);
-    // model.addAttribute("profile", new Profile(account)); 아래의 code 와 같은 기능을 함
+  public String updateProfileForm(@AuthenticationPrincipal UserAccount userAccount, Model model){
+    model.addAttribute("account", currentAccount(userAccount));
+    // model.addAttribute("profile", profile); 아래의 code 와 같은 기능을 함
     // attributeName 이 자동으로 "profile" 이라고 지어짐
-    model.addAttribute(new Profile(account));
+    model.addAttribute(accountService.getProfile(userAccount.getAccountId()));
 
     return SETTINGS_PROFILE_VIEW;
 
@@ -70,8 +77,8 @@ public class SettingsController {
 
   // post 방식으로 요청이 들어올 때
   // 자동으로 호출되는 메소드
-  // @CurrentUser  <-- 현재 user(현재 login 상태에 있는 회원)
-  //                   정보를 가져오기 위한 Annotation
+  // @AuthenticationPrincipal UserAccount <-- 현재 user(현재 login 상태에 있는 회원)
+  //                                          정보를 가져오기 위한 Annotation (session 의 principal)
   // @Valid @ModelAttribute Profile profile
   //   ㄴ form 에서 입력한 값들은 @ModelAttribute 를 사용해서 Profile 객체로 받아옴
   //   ㄴ @ModelAttribute 은 생략할 수 있음    ㄴ  @ModelAttribute 로 data 를 biding 함
@@ -80,17 +87,23 @@ public class SettingsController {
   // @Valid @ModelAttribute Profile profile
   //  <-- Spring 이 Profile 객체를 자동으로 생성해서 (setter 를 사용해서) parameter 에 주입하는데
   //      이때, 기본 생성자를 호출함. Profile 클래스에 기본생성자를 작성해야 함
+  // 저장할 때는 Account 를 조회하지 않음
+  //  ㄴ @AuthenticationPrincipal UserAccount : session 의 principal (accountId 로 update 만 실행함)
+  //  ㄴ error 가 있어서 form 을 다시 보여줄 때만 Account 를 조회함
+  // 다른 탭(기기)에서 먼저 수정했으면 (버전이 다르면) 409 Conflict 로 form 을 다시 보여줌
+  //  ㄴ 입력한 값은 그대로 두고 버전만 지금 버전으로 바꾸므로, 확인하고 다시 저장하면 덮어씀
   @PostMapping(SETTINGS_PROFILE_URL)
-  public String updateProfile(@CurrentUser Account account,
+  public String updateProfile(@AuthenticationPrincipal UserAccount userAccount,
                               @Valid @ModelAttribute Profile profile,
-                              Errors errors, Model model, RedirectAttributes redirectAttributes){
+                              Errors errors, Model model, RedirectAttributes redirectAttributes,
+                              HttpServletResponse response){
 
     // error 가 있는 경우 (validation 위반)
     // ㄴ model 에 form 에 채워진 data 가 자동으로 들어가고,
     //   error 에 대한 정보도 model 에 자동으로 들어감
     // ㄴ account 객체만 명시적으로 넣어주면 됨
     if(errors.hasErrors()){
-      model.addAttribute(account);
+      model.addAttribute("account", currentAccount(userAccount));
       // 화면에는 현재 view 를 그대로 보여줌
       return SETTINGS_PROFILE_VIEW;
     }
@@ -99,7 +112,21 @@ public class SettingsController {
     // data 를 수정하는 경우에는 Service 에 위임해서
     // Transaction 안에서 수정해야  DB 에 반영됨
     // <-- @Transactional 어노테이션 사용
-    accountService.updateProfile(account, profile);
+    try {
+      accountService.updateProfile(userAccount, profile);
+    } catch (OptimisticLockingFailureException e) {
+      profile.setVersion(accountRepository.findVersionById(userAccount.getAccountId()));
+      model.addAttribute("account", currentAccount(userAccount));
+      model.addAttribute("conflict", "다른 곳에서 프로필을 먼저 수정했습니다. 입력한 내용을 확인하고 다시 저장하세요.");
+      response.setStatus(HttpServletResponse.SC_CONFLICT);
+      return SETTINGS_PROFILE_VIEW;
+    } catch (IllegalArgumentException e) {
+      // 프로필 사진이 너무 크거나 image 가 아닌 경우 (ProfileImageService.save)
+      //  ㄴ validation error 처럼 profileImage 에 error 를 넣고 form 을 다시 보여줌
+      errors.rejectValue("profileImage", "invalid.profileImage", e.getMessage());
+      model.addAttribute("account", currentAccount(userAccount));
+      return SETTINGS_PROFILE_VIEW;
+    }
     redirectAttributes.addFlashAttribute("message", "프로필이 수정되었습니다.");
 
     // 수정한 후에는 redirect 로 root page 로 이동함
@@ -111,31 +138,63 @@ public class SettingsController {
   }
 
   @GetMapping(SETTINGS_PASSWORD_URL)
-  public String updatePasswordForm(@CurrentUser Account account, Model model){
-    model.addAttribute(account);
+  public String updatePasswordForm(@AuthenticationPrincipal UserAccount userAccount, Model model){
+    model.addAttribute("account", currentAccount(userAccount));
 
     // Form 으로 사용할 객체가 없음 -> Form 으로 사용할 클래스 작성하기
     // com.global.settings.PasswordForm 클래스 작성함
-    model.addAttribute(new PasswordForm());
+    //  ㄴ version : form 을 열었을 때의 버전 (프로필 수정 form 과 같음)
+    PasswordForm passwordForm = new PasswordForm();
+    passwordForm.setVersion(accountRepository.findVersionById(userAccount.getAccountId()));
+    model.addAttribute(passwordForm);
 
     return SETTINGS_PASSWORD_VIEW;
   }
 
-  // @CurrentUser Account account : 현재 접속해 있는 사용자
+  // @AuthenticationPrincipal UserAccount userAccount : 현재 접속해 있는 사용자
+  //  ㄴ 프로필 수정과 같이 error 가 있을 때만 Account 를 조회함
+  // 다른 탭(기기)에서 먼저 수정했으면 (버전이 다르면) 프로필 수정과 같이 409 Conflict 로 form 을 다시 보여줌
+  //  ㄴ 입력한 비밀번호는 지우고 버전만 지금 버전으로 바꾸므로, 확인하고 다시 입력하면 바뀜
   @PostMapping(SETTINGS_PASSWORD_URL)
-  public String updatePassword(@CurrentUser Account account,
+  public String updatePassword(@AuthenticationPrincipal UserAccount userAccount,
                                @Valid PasswordForm passwordForm,
                                Errors errors, Model model,
-                               RedirectAttributes redirectAttributes){
+                               RedirectAttributes redirectAttributes,
+                               HttpServletResponse response){
     if(errors.hasErrors()){
-      model.addAttribute(account);
+      model.addAttribute("account", currentAccount(userAccount));
       return SETTINGS_PASSWORD_VIEW;
     }
 
-    accountService.updatePassword(account, passwordForm.getNewPassword());
+    try {
+      accountService.updatePassword(userAccount, passwordForm.getVersion(), passwordForm.getNewPassword());
+    } catch (OptimisticLockingFailureException e) {
+      passwordForm.setNewPassword(null);
+      passwordForm.setNewPasswordConfirm(null);
+      passwordForm.setVersion(accountRepository.findVersionById(userAccount.getAccountId()));
+      model.addAttribute("account", currentAccount(userAccount));
+      model.addAttribute("conflict", "다른 곳에서 회원 정보를 먼저 수정했습니다. 확인하고 비밀번호를 다시 입력하세요.");
+      response.setStatus(HttpServletResponse.SC_CONFLICT);
+      return SETTINGS_PASSWORD_VIEW;
+    } catch (PasswordEncoderBusyException e) {
+      // 비밀번호 계산 요청이 많아서 거절됨 (BoundedPasswordEncoder)
+      errors.rejectValue("newPassword", "busy", e.getMessage());
+      model.addAttribute("account", currentAccount(userAccount));
+      response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      return SETTINGS_PASSWORD_VIEW;
+    }
     redirectAttributes.addFlashAttribute("message", "비밀번호를 수정했습니다.");
 
     return "redirect:" + SETTINGS_PASSWORD_URL;
   }
 
+  // 설정 화면에 보여주는 회원 정보 (필요한 column 만 조회함)
+  private PublicProfile currentAccount(UserAccount userAccount){
+    PublicProfile account = accountRepository.findPublicProfileById(userAccount.getAccountId());
+    if(account == null){
+      throw new IllegalStateException("회원이 없습니다 : " + userAccount.getUsername());
+    }
+    return account;
+  }
+
 }
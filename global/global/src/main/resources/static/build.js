@@ -0,0 +1,70 @@
+/*
+화면에서 사용하는 node_modules 의 CSS, JS 를 묶어서 assets 폴더에 만드는 script (npm run build)
+  - 여러 파일을 하나로 묶음 → 첫 방문에 요청하는 파일 수가 줄어듦
+      ㄴ vendor.css : bootstrap, font-awesome
+      ㄴ vendor.js  : jquery, bootstrap(popper 포함)
+      ㄴ 묶는 파일은 이미 minify 된 *.min.* 파일임
+  - 각 파일마다 gzip(.gz), brotli(.br) 로 미리 압축한 파일도 만듦
+      ㄴ 서버는 요청할 때마다 압축하지 않고 Accept-Encoding 에 맞는 파일을 그대로 보냄 (AssetConfig)
+  - 파일 이름의 content hash 는 서버가 붙임 (VersionResourceResolver, /assets/vendor-{md5}.css)
+  - 사용법 : node build.js --out=<assets 폴더>
+      ㄴ Maven 은 generate-resources 단계에서 target/classes/static/assets 로 만듦 (pom.xml)
+*/
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const modules = path.join(__dirname, 'node_modules');
+
+const bundles = {
+  'vendor.css': [
+    'bootstrap/dist/css/bootstrap.min.css',
+    'font-awesome/css/font-awesome.min.css'
+  ],
+  'vendor.js': [
+    'jquery/dist/jquery.min.js',
+    'bootstrap/dist/js/bootstrap.bundle.min.js'
+  ]
+};
+
+// 이미 압축된 형식(woff, woff2)은 다시 압축하지 않음
+const compressible = ['.css', '.js', '.svg', '.ttf', '.eot'];
+
+const outArg = process.argv.find(arg => arg.startsWith('--out='));
+const out = outArg ? path.resolve(outArg.substring('--out='.length)) : path.join(__dirname, 'assets');
+
+function bundle(name, files) {
+  const contents = files.map(file => {
+    let content = fs.readFileSync(path.join(modules, file), 'utf8');
+    // 묶은 CSS 는 assets 폴더에 있으므로 font-awesome 의 ../fonts/ 를 assets/fonts/ 로 바꿈
+    content = content.replace(/\.\.\/fonts\//g, 'fonts/');
+    // sourceMappingURL 이 가리키는 .map 파일은 함께 배포하지 않음
+    return content.replace(/\/[*\/]# sourceMappingURL=.*$/gm, '');
+  });
+  // 앞 파일이 ; 없이 끝나도 이어지지 않도록 줄을 바꿔서 묶음
+  write(name, contents.join(name.endsWith('.js') ? ';\n' : '\n'));
+}
+
+function copyDir(from, to) {
+  fs.readdirSync(from).forEach(file => {
+    write(path.join(to, file), fs.readFileSync(path.join(from, file)));
+  });
+}
+
+function write(name, content) {
+  const file = path.join(out, name);
+  fs.mkdirSync(path.dirname(file), {recursive: true});
+  fs.writeFileSync(file, content);
+  if (!compressible.includes(path.extname(file))) {
+    return;
+  }
+  const buffer = Buffer.from(content);
+  fs.writeFileSync(file + '.gz', zlib.gzipSync(buffer, {level: zlib.constants.Z_BEST_COMPRESSION}));
+  fs.writeFileSync(file + '.br', zlib.brotliCompressSync(buffer, {
+    params: {[zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY}
+  }));
+}
+
+Object.keys(bundles).forEach(name => bundle(name, bundles[name]));
+copyDir(path.join(modules, 'font-awesome/fonts'), 'fonts');
+console.log('assets : ' + out);
@@ -1,22 +1,40 @@
 package com.global.account;
 
 import com.global.domain.Account;
+import com.global.mail.MailDispatcher;
+import com.global.settings.Profile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.reset;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
-import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,15 +52,36 @@ class AccountControllerTest {
   @Autowired
   private AccountRepository accountRepository;
 
+  @Autowired
+  private AccountService accountService;
+
+  @Autowired
+  private SessionRepository<? extends Session> sessionRepository;
+
+  @Autowired
+  private EmailTokenSigner emailTokenSigner;
+
   @MockBean
-  JavaMailSender javaMailSender;
+  MailDispatcher mailDispatcher;
+
+  // session 은 MockHttpSession 이 아니라 DB(Spring Session) 에 저장되므로
+  // authenticated() 대신 응답의 SESSION cookie 로 저장된 session 을 조회해서 확인함
+  private void assertAuthenticated(MvcResult result, String nickName) {
+    Cookie cookie = result.getResponse().getCookie("SESSION");
+    assertNotNull(cookie);
+    String sessionId = new String(Base64.getDecoder().decode(cookie.getValue()), StandardCharsets.UTF_8);
+    Session session = sessionRepository.findById(sessionId);
+    assertNotNull(session);
+    SecurityContext context = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+    assertNotNull(context);
+    assertEquals(nickName, context.getAuthentication().getName());
+  }
 
   @DisplayName("인증 메일 확인 - 입력값이 잘못 된 경우")
   @Test
   void checkEmailToken_with_wrong_input() throws Exception{
     mockMvc.perform(get("/check-email-token")
-      .param("token", "werwrefsfdsdfwef")
-      .param("email", "testemail@google.com"))
+      .param("token", "werwrefsfdsdfwef"))
       .andExpect(status().isOk())
       .andExpect(model().attributeExists("error"))
       .andExpect(view().name("account/check-email"))
@@ -61,21 +100,81 @@ class AccountControllerTest {
     // accountRepository.save(account) 실행해서
     // 새로 생성된 newAccount 에서 generateEmailCheckToken() 실행하면
     // email token 이 생성되고
-    // 이것을
-    // .param("token", newAccount.getEmailCheckToken()) 에 넣어줌
+    // 이것에 서명한 값(메일로 보내는 token)을
+    // .param("token", emailTokenSigner.sign(newAccount)) 에 넣어줌
 
     Account newAccount = accountRepository.save(account);
     newAccount.generateEmailCheckToken();
+    String token = emailTokenSigner.sign(newAccount);
 
-    mockMvc.perform(get("/check-email-token")
-           .param("token", newAccount.getEmailCheckToken())
-           .param("email", newAccount.getEmail()))
+    MvcResult result = mockMvc.perform(get("/check-email-token")
+           .param("token", token))
            .andExpect(status().isOk())
            .andExpect(model().attributeDoesNotExist("error"))
            .andExpect(model().attributeExists("nickName"))
            .andExpect(model().attributeExists("numberOfUser"))
            .andExpect(view().name("account/check-email"))
-           .andExpect(authenticated().withUsername("global1000"));
+           .andReturn();
+    assertAuthenticated(result, "global1000");
+
+    Account verified = accountRepository.findById(newAccount.getId()).orElseThrow();
+    assertTrue(verified.isEmailVerified());
+    assertNotNull(verified.getJoinedAt());
+
+    // 이미 사용한 token 은 다시 사용할 수 없음
+    mockMvc.perform(get("/check-email-token")
+           .param("token", token))
+           .andExpect(model().attributeExists("error"));
+  }
+
+  @DisplayName("인증 메일 확인 - 다시 보낸 메일이 있으면 예전 token 은 사용할 수 없음")
+  @Test
+  void checkEmailToken_with_old_token() throws Exception{
+    Account newAccount = accountRepository.save(Account.builder()
+                                                       .email("test@gmail.com")
+                                                       .password("12345678")
+                                                       .nickName("global1000")
+                                                       .build());
+    newAccount.generateEmailCheckToken();
+    String oldToken = emailTokenSigner.sign(newAccount);
+    newAccount.generateEmailCheckToken();
+
+    mockMvc.perform(get("/check-email-token")
+           .param("token", oldToken))
+           .andExpect(model().attributeExists("error"))
+           .andExpect(unauthenticated());
+    assertFalse(accountRepository.findById(newAccount.getId()).orElseThrow().isEmailVerified());
+  }
+
+  @DisplayName("인증 메일 다시 보내기 - 새 token 을 만들어서 보내므로 가입하고 하루가 지나도 사용할 수 있음")
+  @Test
+  void resendConfirmEmail() throws Exception{
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("resendtest");
+    signUpForm.setEmail("resendtest@gmail.com");
+    signUpForm.setPassword("12345678");
+    Account account = accountService.processNewAccount(signUpForm);
+    // 처음 보낸 인증 메일이 이틀 전이라서 유효 기간이 지났음
+    account.setEmailCheckTokenGeneratedAt(LocalDateTime.now().minusDays(2));
+    String oldNonce = account.getEmailCheckToken();
+    reset(mailDispatcher);
+
+    mockMvc.perform(get("/resend-confirm-email")
+           .with(user(new UserAccount(account))))
+           .andExpect(status().is3xxRedirection())
+           .andExpect(redirectedUrl("/"));
+
+    Account resent = accountRepository.findById(account.getId()).orElseThrow();
+    assertNotEquals(oldNonce, resent.getEmailCheckToken());
+    assertFalse(resent.canSendConfirmEmail());
+
+    ArgumentCaptor<SimpleMailMessage> mail = ArgumentCaptor.forClass(SimpleMailMessage.class);
+    then(mailDispatcher).should().enqueue(mail.capture());
+    String token = mail.getValue().getText().substring("/check-email-token?token=".length());
+    mockMvc.perform(get("/check-email-token")
+           .param("token", token))
+           .andExpect(model().attributeDoesNotExist("error"));
+    assertTrue(accountRepository.findById(account.getId()).orElseThrow().isEmailVerified());
   }
 
   @DisplayName("회원 가입 화면 테스트 - 화면이 보이는지 ...")
@@ -107,14 +206,15 @@ class AccountControllerTest {
   @DisplayName("회원 가입 처리 확인하기 - 입력값 정상인 경우")
   @Test
   void signUpSubmit_with_correct_input() throws Exception{
-    mockMvc.perform(post("/sign-up")
+    MvcResult result = mockMvc.perform(post("/sign-up")
            .param("nickName", "global1000")
            .param("email", "test@gmail.com")
            .param("password", "12345678")
            .with(csrf()))
            .andExpect(status().is3xxRedirection())
            .andExpect(view().name("redirect:/"))
-           .andExpect(authenticated().withUsername("global1000"));
+           .andReturn();
+    assertAuthenticated(result, "global1000");
 
 
     Account account = accountRepository.findByEmail("test@gmail.com");
@@ -127,8 +227,111 @@ class AccountControllerTest {
     // 이메일 확인하기
     assertTrue(accountRepository.existsByEmail("test@gmail.com"));
     // mail 을 보내는지 test 하기
-    then(javaMailSender).should().send(any(SimpleMailMessage.class));
+    //  ㄴ 메일은 MailDispatcher 의 queue 에 들어간 뒤 commit 이 끝나면 보내짐
+    then(mailDispatcher).should().enqueue(any(SimpleMailMessage.class));
   }
 
+  @DisplayName("회원 가입 화면에서 닉네임, 이메일 사용 여부 확인하기")
+  @Test
+  void signUpAvailability() throws Exception{
+    // 회원 가입은 AccountService 를 거쳐야 Bloom filter 에도 추가됨
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("taken");
+    signUpForm.setEmail("taken@gmail.com");
+    signUpForm.setPassword("12345678");
+    accountService.processNewAccount(signUpForm);
+
+    mockMvc.perform(get("/sign-up/availability")
+           .param("email", "taken@gmail.com")
+           .param("nickName", "newnickname"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.email").value(false))
+           .andExpect(jsonPath("$.nickName").value(true));
+
+    mockMvc.perform(get("/sign-up/availability")
+           .param("nickName", "taken"))
+           .andExpect(jsonPath("$.email").value(true))
+           .andExpect(jsonPath("$.nickName").value(false));
+  }
+
+  // 프로필 cache 는 commit 된 뒤에 지워지므로(TransactionAwareCacheManagerProxy) 회원을 commit 하고(NOT_SUPPORTED) 끝나면 지움
+  @DisplayName("프로필 화면 - 본인 여부, 프로필을 수정하면 cache 에 남은 예전 프로필을 지움")
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void viewProfile() throws Exception{
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("profiletest");
+    signUpForm.setEmail("profiletest@gmail.com");
+    signUpForm.setPassword("12345678");
+    Account account = accountService.processNewAccount(signUpForm);
+
+    try {
+      mockMvc.perform(get("/profile/profiletest"))
+             .andExpect(status().isOk())
+             .andExpect(view().name("account/profile"))
+             .andExpect(model().attribute("isCurrentUser", false))
+             .andExpect(model().attribute("profile", hasProperty("bio", nullValue())));
+
+      Profile profile = new Profile(account);
+      profile.setBio("안녕하세요");
+      accountService.updateProfile(new UserAccount(account), profile);
+
+      mockMvc.perform(get("/profile/profiletest")
+             .with(user(new UserAccount(account))))
+             .andExpect(model().attribute("isCurrentUser", true))
+             .andExpect(model().attribute("profile", hasProperty("bio", is("안녕하세요"))))
+             .andExpect(content().string(containsString("안녕하세요")));
+    } finally {
+      // 프로필을 수정해서 account 의 버전이 DB 와 다르므로 id 로 지움
+      accountRepository.deleteById(account.getId());
+    }
+  }
+
+  @DisplayName("프로필 화면 - 없는 회원이면 404")
+  @Test
+  void viewProfile_not_found() throws Exception{
+    mockMvc.perform(get("/profile/nobody"))
+           .andExpect(status().isNotFound());
+  }
+
+  @DisplayName("회원 가입 처리 확인하기 - Bloom filter 에 없는 회원(다른 서버, 일괄 등록)도 DB 에서 확인함")
+  @Test
+  void signUpSubmit_with_account_not_in_bloom_filter() throws Exception{
+    // AccountService 를 거치지 않으므로 Bloom filter 에는 추가되지 않음
+    accountRepository.save(Account.builder()
+                                  .nickName("elsewhere")
+                                  .email("elsewhere@gmail.com")
+                                  .password("{noop}12345678")
+                                  .build());
+
+    mockMvc.perform(post("/sign-up")
+           .param("nickName", "elsewhere")
+           .param("email", "elsewhere@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(status().isOk())
+           .andExpect(view().name("account/sign-up"))
+           .andExpect(model().attributeHasFieldErrors("signUpForm", "email", "nickName"));
+  }
+
+  @DisplayName("회원 가입 처리 확인하기 - 이미 사용 중인 이메일, 닉네임인 경우")
+  @Test
+  void signUpSubmit_with_duplicated_input() throws Exception{
+    mockMvc.perform(post("/sign-up")
+           .param("nickName", "global2000")
+           .param("email", "dup@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(status().is3xxRedirection());
+
+    mockMvc.perform(post("/sign-up")
+           .param("nickName", "global2000")
+           .param("email", "dup@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(status().isOk())
+           .andExpect(view().name("account/sign-up"))
+           .andExpect(model().attributeHasFieldErrors("signUpForm", "email", "nickName"));
+  }
 
-}
\ No newline at end of file
+}
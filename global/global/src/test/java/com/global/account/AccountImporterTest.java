@@ -0,0 +1,208 @@
+package com.global.account;
+
+import com.global.domain.Account;
+import com.global.domain.NotificationChannel;
+import com.global.domain.NotificationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 가져오기는 batch 마다 따로 commit 하므로 @Transactional 을 붙이지 않고 직접 지움
+@SpringBootTest(properties = "app.account-import.batch-size=2")
+class AccountImporterTest {
+
+  @Autowired
+  AccountImporter accountImporter;
+
+  @Autowired
+  AccountExporter accountExporter;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  PasswordEncoder passwordEncoder;
+
+  @Autowired
+  MemberStatistics memberStatistics;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @TempDir
+  Path dir;
+
+  @AfterEach
+  void afterEach() {
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("CSV 가져오기 - 잘못된 줄, 이미 사용 중인 email, nickName 은 건너뜀")
+  @Test
+  void importCsv() throws Exception {
+    accountRepository.save(Account.builder().email("taken@gmail.com").nickName("taken").password("x").build());
+    Path file = write("accounts.csv",
+                      "email,nickName,password,emailVerified,joinedAt",
+                      "import1@gmail.com,import1,12345678,true,2020-01-02T03:04:05",
+                      "\"import2@gmail.com\",import2,\"12,34\"\"5678\",false,",
+                      "not-an-email,import3,12345678,false,",
+                      "taken@gmail.com,import4,12345678,false,",
+                      "import5@gmail.com,import1,12345678,false,",
+                      "import6@gmail.com,import6,12345678,false");
+
+    AccountImporter.Result result = accountImporter.importAccounts(file, dir.resolve("checkpoint"), false);
+    assertEquals(2, result.getImported());
+    assertEquals(4, result.getSkipped());
+
+    Account import1 = accountRepository.findByNickName("import1");
+    assertEquals("import1@gmail.com", import1.getEmail());
+    assertTrue(import1.isEmailVerified());
+    assertEquals("2020-01-02T03:04:05", import1.getJoinedAt().toString());
+    assertTrue(passwordEncoder.matches("12345678", import1.getPassword()));
+
+    // 인증하지 않은 회원은 인증 메일을 다시 보낼 수 있도록 token 이 있어야 함
+    Account import2 = accountRepository.findByNickName("import2");
+    assertFalse(import2.isEmailVerified());
+    assertNotNull(import2.getEmailCheckToken());
+    assertTrue(passwordEncoder.matches("12,34\"5678", import2.getPassword()));
+
+    // 끝까지 가져오면 checkpoint 를 지우고, 회원 수를 다시 셈
+    assertFalse(Files.exists(dir.resolve("checkpoint")));
+    assertEquals(3, memberStatistics.getTotal());
+    assertEquals(1, memberStatistics.getVerified());
+
+    // 가져온 뒤에 JPA 로 가입한 회원의 id 와 겹치지 않음
+    Account saved = accountRepository.save(Account.builder().email("jpa@gmail.com").nickName("jpa").password("x").build());
+    assertNotEquals(import1.getId(), saved.getId());
+    assertNotEquals(import2.getId(), saved.getId());
+  }
+
+  @DisplayName("checkpoint 가 있으면 그 다음 줄부터 가져옴")
+  @Test
+  void resumeFromCheckpoint() throws Exception {
+    Path file = write("accounts.csv",
+                      "email,nickName,password,emailVerified,joinedAt",
+                      "resume1@gmail.com,resume1,12345678,false,",
+                      "resume2@gmail.com,resume2,12345678,false,",
+                      "resume3@gmail.com,resume3,12345678,false,");
+    Path checkpoint = dir.resolve("checkpoint");
+    Files.writeString(checkpoint, "2");
+
+    AccountImporter.Result result = accountImporter.importAccounts(file, checkpoint, false);
+    assertEquals(1, result.getImported());
+    assertNull(accountRepository.findByNickName("resume1"));
+    assertNotNull(accountRepository.findByNickName("resume3"));
+  }
+
+  @DisplayName("JSONL 로 내보낸 파일을 다시 가져오면 같은 회원이 됨 (비밀번호는 encoding 된 값 그대로)")
+  @Test
+  void exportAndImportJsonl() throws Exception {
+    Path csv = write("accounts.csv",
+                     "email,nickName,password,emailVerified,joinedAt",
+                     "export1@gmail.com,export1,12345678,true,2021-05-06T07:08:09",
+                     "export2@gmail.com,export2,12345678,false,");
+    accountImporter.importAccounts(csv, dir.resolve("checkpoint"), false);
+    String password = accountRepository.findByNickName("export1").getPassword();
+
+    Path jsonl = dir.resolve("accounts.jsonl");
+    assertEquals(2, accountExporter.exportAccounts(jsonl));
+    List<String> lines = Files.readAllLines(jsonl);
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).contains("\"nickName\":\"export1\""));
+
+    accountRepository.deleteAll();
+    AccountImporter.Result result = accountImporter.importAccounts(jsonl, dir.resolve("checkpoint"), false);
+    assertEquals(2, result.getImported());
+    Account export1 = accountRepository.findByNickName("export1");
+    assertEquals(password, export1.getPassword());
+    assertEquals("2021-05-06T07:08:09", export1.getJoinedAt().toString());
+  }
+
+  @DisplayName("PasswordEncoder 가 모르는 {id} 로 시작하는 비밀번호는 건너뜀")
+  @Test
+  void unknownEncoderId() throws Exception {
+    Path file = write("accounts.csv",
+                      "email,nickName,password,emailVerified,joinedAt",
+                      "noop@gmail.com,noop,{noop}12345678,false,",
+                      "sha512@gmail.com,sha512,{sha512}abcdef,false,");
+
+    AccountImporter.Result result = accountImporter.importAccounts(file, dir.resolve("checkpoint"), false);
+    assertEquals(1, result.getImported());
+    assertEquals(1, result.getSkipped());
+    assertEquals("{noop}12345678", accountRepository.findByNickName("noop").getPassword());
+    assertNull(accountRepository.findByNickName("sha512"));
+  }
+
+  @DisplayName("CSV 로 내보낸 파일을 다시 가져오면 프로필, 알림 설정도 같음")
+  @Test
+  void exportAndImportCsvWithProfile() throws Exception {
+    int preferences = NotificationType.STUDY_CREATED.bit(NotificationChannel.EMAIL);
+    Path file = write("accounts.csv",
+                      "email,nickName,password,emailVerified,joinedAt,bio,url,occupation,location,profileImage,notificationPreferences",
+                      "profile1@gmail.com,profile1,12345678,true,2022-01-02T03:04:05,\"안녕, 하세요\",https://global.com,"
+                      + "developer,Seoul,/images/profile/abc," + preferences,
+                      "profile2@gmail.com,profile2,12345678,false,,,,,,,",
+                      "profile3@gmail.com,profile3,12345678,false,,,,,,,1024");
+
+    AccountImporter.Result result = accountImporter.importAccounts(file, dir.resolve("checkpoint"), false);
+    assertEquals(2, result.getImported());
+    // NotificationType 에 없는 bit 가 켜진 알림 설정은 건너뜀
+    assertEquals(1, result.getSkipped());
+    // 비어 있으면 회원 가입할 때의 설정
+    assertEquals(NotificationType.DEFAULT, accountRepository.findByNickName("profile2").getNotificationPreferences());
+
+    Path exported = dir.resolve("exported.csv");
+    assertEquals(2, accountExporter.exportAccounts(exported));
+    accountRepository.deleteAll();
+    accountImporter.importAccounts(exported, dir.resolve("checkpoint"), false);
+
+    Account profile1 = accountRepository.findByNickName("profile1");
+    assertEquals("안녕, 하세요", profile1.getBio());
+    assertEquals("https://global.com", profile1.getUrl());
+    assertEquals("developer", profile1.getOccupation());
+    assertEquals("Seoul", profile1.getLocation());
+    assertEquals("/images/profile/abc", profile1.getProfileImage());
+    assertEquals(preferences, profile1.getNotificationPreferences());
+    Account profile2 = accountRepository.findByNickName("profile2");
+    assertNull(profile2.getBio());
+    assertEquals(NotificationType.DEFAULT, profile2.getNotificationPreferences());
+  }
+
+  @DisplayName("--send-mail : 인증하지 않은 회원의 인증 메일을 모두 queue 에 넣음")
+  @Test
+  void sendMail() throws Exception {
+    double sent = meterRegistry.counter("mail.sent").count();
+    Path file = write("accounts.csv",
+                      "email,nickName,password,emailVerified,joinedAt",
+                      "mail1@gmail.com,mail1,12345678,false,",
+                      "mail2@gmail.com,mail2,12345678,true,",
+                      "mail3@gmail.com,mail3,12345678,false,");
+
+    AccountImporter.Result result = accountImporter.importAccounts(file, dir.resolve("checkpoint"), true);
+    assertEquals(3, result.getImported());
+    assertEquals(0, result.getMailDropped());
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.counter("mail.sent").count() < sent + 2) {
+      assertTrue(System.nanoTime() < deadline, "시간 안에 메일을 보내지 못했습니다");
+      Thread.sleep(10);
+    }
+  }
+
+  private Path write(String name, String... lines) throws Exception {
+    return Files.write(dir.resolve(name), List.of(lines));
+  }
+
+}
@@ -0,0 +1,32 @@
+package com.global.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+  @DisplayName("넣은 값은 항상 있다고 나오고, 넣지 않은 값은 대부분 없다고 나옴")
+  @Test
+  void mightContain() {
+    BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bloomFilter.add("user" + i + "@gmail.com");
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(bloomFilter.mightContain("user" + i + "@gmail.com"));
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (bloomFilter.mightContain("other" + i + "@gmail.com")) {
+        falsePositives++;
+      }
+    }
+    // 오탐률 1% 로 만들었으므로 넉넉하게 3% 보다 작은지 확인함
+    assertTrue(falsePositives < 300, "false positives : " + falsePositives);
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.global.account;
+
+import com.global.domain.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTokenSignerTest {
+
+  EmailTokenSigner signer = new EmailTokenSigner("test-secret", Duration.ofDays(1), false);
+
+  private Account account() {
+    Account account = Account.builder().id(42L).build();
+    account.generateEmailCheckToken();
+    return account;
+  }
+
+  @DisplayName("서명한 token 을 확인하면 id, nonce 를 그대로 돌려줌")
+  @Test
+  void sign_and_verify() {
+    Account account = account();
+    EmailToken token = signer.verify(signer.sign(account));
+
+    assertNotNull(token);
+    assertEquals(42L, token.getAccountId());
+    assertEquals(account.getEmailCheckToken(), token.getNonce());
+  }
+
+  @DisplayName("한 byte 라도 바뀌거나 다른 secret 으로 서명한 token 은 거절함")
+  @Test
+  void forged_token() {
+    byte[] bytes = Base64.getUrlDecoder().decode(signer.sign(account()));
+    // account id 를 바꿈
+    bytes[7] ^= 1;
+    assertNull(signer.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)));
+
+    EmailTokenSigner other = new EmailTokenSigner("other-secret", Duration.ofDays(1), false);
+    assertNull(signer.verify(other.sign(account())));
+
+    assertNull(signer.verify(null));
+    assertNull(signer.verify("not a token"));
+    assertNull(signer.verify("c2hvcnQ"));
+  }
+
+  @DisplayName("유효 기간이 지난 token 은 거절함")
+  @Test
+  void expired_token() {
+    Account account = account();
+    account.setEmailCheckTokenGeneratedAt(LocalDateTime.now().minusDays(2));
+    assertNull(signer.verify(signer.sign(account)));
+  }
+
+  @DisplayName("secret 이 비어 있으면 local, test profile 에서만 임시 secret 을 사용하고, 그 밖에는 시작하지 않음")
+  @Test
+  void blank_secret() {
+    assertThrows(IllegalStateException.class, () -> new EmailTokenSigner("", Duration.ofDays(1), false));
+    assertThrows(IllegalStateException.class, () -> new EmailTokenSigner("  ", Duration.ofDays(1), false));
+
+    EmailTokenSigner temporary = new EmailTokenSigner("", Duration.ofDays(1), true);
+    assertNotNull(temporary.verify(temporary.sign(account())));
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.global.account;
+
+import com.global.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MemberStatisticsTest {
+
+  @Autowired
+  MemberStatistics memberStatistics;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  EmailTokenSigner emailTokenSigner;
+
+  @AfterEach
+  void afterEach(){
+    accountRepository.deleteAll();
+    memberStatistics.reconcile();
+  }
+
+  @DisplayName("가입하고 인증하면 회원 수가 늘어남 (DB 를 다시 세지 않음)")
+  @Test
+  void count_on_events() {
+    memberStatistics.reconcile();
+    long total = memberStatistics.getTotal();
+    long verified = memberStatistics.getVerified();
+    long joinedToday = memberStatistics.getJoinedToday();
+
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("statstest");
+    signUpForm.setEmail("statstest@gmail.com");
+    signUpForm.setPassword("12345678");
+    Account account = accountService.processNewAccount(signUpForm);
+
+    assertEquals(total + 1, memberStatistics.getTotal());
+    assertEquals(verified, memberStatistics.getVerified());
+
+    assertNotNull(accountService.completeSignUp(emailTokenSigner.sign(account)));
+
+    assertEquals(verified + 1, memberStatistics.getVerified());
+    assertEquals(joinedToday + 1, memberStatistics.getJoinedToday());
+  }
+
+  @DisplayName("회원을 지우면 다시 셀 때 맞춰짐")
+  @Test
+  void reconcile() {
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("statstest2");
+    signUpForm.setEmail("statstest2@gmail.com");
+    signUpForm.setPassword("12345678");
+    accountService.processNewAccount(signUpForm);
+
+    accountRepository.deleteAll();
+    assertNotEquals(0, memberStatistics.getTotal());
+
+    memberStatistics.reconcile();
+    assertEquals(0, memberStatistics.getTotal());
+    assertEquals(0, memberStatistics.getVerified());
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.global.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// src/test/resources/static/assets 의 test.css, test.css.gz 로 확인함
+@SpringBootTest
+@AutoConfigureMockMvc
+class AssetConfigTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ResourceUrlProvider resourceUrlProvider;
+
+  @DisplayName("md5 가 붙은 URL - 1 년 동안 다시 확인하지 않음")
+  @Test
+  void versioned_url_is_immutable() throws Exception {
+    String url = resourceUrlProvider.getForLookupPath("/assets/test.css");
+    assertNotNull(url);
+    assertTrue(url.matches("/assets/test-[0-9a-f]{32}\\.css"), url);
+
+    mockMvc.perform(get(url))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+           .andExpect(content().string(".asset-test{color:#333}\n"));
+  }
+
+  @DisplayName("gzip 을 받을 수 있으면 미리 압축한 .gz 파일을 보냄")
+  @Test
+  void precompressed_gzip() throws Exception {
+    String url = resourceUrlProvider.getForLookupPath("/assets/test.css");
+
+    mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+           .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @DisplayName("md5 가 없는 URL - 매번 Last-Modified 로 확인함")
+  @Test
+  void plain_url_is_revalidated() throws Exception {
+    mockMvc.perform(get("/assets/test.css"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+           .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+  }
+
+}
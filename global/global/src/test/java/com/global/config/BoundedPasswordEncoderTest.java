@@ -0,0 +1,108 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  CountDownLatch release = new CountDownLatch(1);
+  BoundedPasswordEncoder encoder;
+
+  // release 가 열릴 때까지 끝나지 않는 PasswordEncoder
+  PasswordEncoder slowEncoder = new PasswordEncoder() {
+    @Override
+    public String encode(CharSequence rawPassword) {
+      await();
+      return "encoded-" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      await();
+      return encodedPassword.equals("encoded-" + rawPassword);
+    }
+
+    private void await() {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  };
+
+  @AfterEach
+  void afterEach() {
+    release.countDown();
+    if (encoder != null) {
+      encoder.shutdown();
+    }
+  }
+
+  @DisplayName("encode, matches 는 별도의 thread 에서 실행되고 시간이 기록됨")
+  @Test
+  void encode_and_matches() {
+    release.countDown();
+    encoder = new BoundedPasswordEncoder(slowEncoder, meterRegistry, 1, 1, Duration.ofSeconds(1));
+
+    String encoded = encoder.encode("12345678");
+    assertTrue(encoder.matches("12345678", encoded));
+    assertEquals(1, meterRegistry.timer("password.encode").count());
+    assertEquals(1, meterRegistry.timer("password.matches").count());
+  }
+
+  @DisplayName("계산 중인 작업과 기다리는 작업이 가득 차면 바로 거절함")
+  @Test
+  void reject_when_queue_is_full() throws Exception {
+    encoder = new BoundedPasswordEncoder(slowEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+    // thread 1 개가 계산 중이고, 1 개가 queue 에서 기다림
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+    CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+    long deadline = System.currentTimeMillis() + 2000;
+    while (meterRegistry.get("password.queue.size").gauge().value() < 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertThrows(AuthenticationServiceException.class, () -> encoder.encode("third"));
+    assertEquals(1, meterRegistry.counter("password.rejected").count());
+
+    release.countDown();
+    assertEquals("encoded-first", running.get(1, TimeUnit.SECONDS));
+    assertEquals("encoded-second", queued.get(1, TimeUnit.SECONDS));
+  }
+
+  @DisplayName("bcrypt 가 아닌 기본 형식({noop}, {pbkdf2})으로 저장된 비밀번호도 확인하고, 로그인하면 bcrypt 로 다시 저장함")
+  @Test
+  void other_encoding_ids() {
+    PasswordEncoder delegate = new DelegatingPasswordEncoder("bcrypt", AppConfig.passwordEncoders(4));
+
+    assertTrue(delegate.matches("12345678", "{noop}12345678"));
+    assertTrue(delegate.matches("12345678", "{pbkdf2}" + new Pbkdf2PasswordEncoder().encode("12345678")));
+    assertTrue(delegate.encode("12345678").startsWith("{bcrypt}"));
+    assertTrue(delegate.upgradeEncoding("{noop}12345678"));
+  }
+
+  @DisplayName("target 이 아주 짧으면 최소 strength 를 사용함")
+  @Test
+  void calibrateStrength() {
+    assertEquals(4, AppConfig.calibrateStrength(Duration.ofNanos(1), 4, 10));
+    int strength = AppConfig.calibrateStrength(Duration.ofSeconds(1), 4, 6);
+    assertTrue(strength >= 4 && strength <= 6);
+  }
+
+}
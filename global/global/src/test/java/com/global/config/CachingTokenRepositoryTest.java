@@ -0,0 +1,125 @@
+package com.global.config;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CachingTokenRepositoryTest {
+
+  @Autowired
+  CachingTokenRepository tokenRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @AfterEach
+  void afterEach(){
+    tokenRepository.removeUserTokens("tokentest");
+    accountRepository.deleteAll();
+  }
+
+  private String tokenInDb(String series) {
+    return jdbcTemplate.queryForObject("select token from persistent_logins where series = ?", String.class, series);
+  }
+
+  @DisplayName("자동 로그인할 때 바뀐 token 은 바로 DB 에 저장됨")
+  @Test
+  void updateToken_writes_through() {
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series1", "token1", new Date()));
+
+    tokenRepository.updateToken("series1", "token2", new Date());
+
+    assertEquals("token2", tokenRepository.getTokenForSeries("series1").getTokenValue());
+    assertEquals("token2", tokenInDb("series1"));
+  }
+
+  @DisplayName("다른 서버에서 바뀐 token 이면 cache 를 지우고 DB 의 token 을 사용함")
+  @Test
+  void evictIfStale() {
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series5", "token1", new Date()));
+    // 다른 서버가 token 을 바꿈
+    jdbcTemplate.update("update persistent_logins set token = ? where series = ?", "token2", "series5");
+    assertEquals("token1", tokenRepository.getTokenForSeries("series5").getTokenValue());
+
+    tokenRepository.evictIfStale("series5", "token2");
+    assertEquals("token2", tokenRepository.getTokenForSeries("series5").getTokenValue());
+  }
+
+  @DisplayName("다른 서버에서 바뀐 token 의 cookie 로도 자동 로그인됨 (token 도용으로 판단하지 않음)")
+  @Test
+  void autoLogin_with_token_rotated_elsewhere() throws Exception {
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("tokentest");
+    signUpForm.setEmail("tokentest@gmail.com");
+    signUpForm.setPassword("12345678");
+    accountService.processNewAccount(signUpForm);
+
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series6", "token1", new Date()));
+    jdbcTemplate.update("update persistent_logins set token = ? where series = ?", "token2", "series6");
+
+    // remember-me cookie 의 값 : base64("series:token")
+    String cookie = Base64.getEncoder().encodeToString("series6:token2".getBytes(StandardCharsets.UTF_8));
+    // 로그인이 필요한 화면이므로 자동 로그인하지 못했으면 로그인 화면으로 redirect 됨
+    mockMvc.perform(get("/settings/profile").cookie(new Cookie("remember-me", cookie)))
+           .andExpect(status().isOk());
+
+    // 자동 로그인하면서 token 이 다시 바뀌었고 지워지지 않았음
+    String rotated = tokenInDb("series6");
+    assertNotEquals("token2", rotated);
+    assertEquals(rotated, tokenRepository.getTokenForSeries("series6").getTokenValue());
+  }
+
+  @DisplayName("로그아웃하면 cache 와 DB 에서 모두 지워짐")
+  @Test
+  void removeUserTokens() {
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series2", "token1", new Date()));
+    tokenRepository.updateToken("series2", "token2", new Date());
+
+    tokenRepository.removeUserTokens("tokentest");
+
+    assertNull(tokenRepository.getTokenForSeries("series2"));
+  }
+
+  @DisplayName("유효 기간이 지난 token 은 지워짐")
+  @Test
+  void purgeExpired() {
+    Date expired = new Date(System.currentTimeMillis() - tokenRepository.getTokenValidity().plus(Duration.ofDays(1)).toMillis());
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series3", "token1", expired));
+    tokenRepository.createNewToken(new PersistentRememberMeToken("tokentest", "series4", "token1", new Date()));
+
+    assertEquals(1, tokenRepository.purgeExpired());
+    assertNull(tokenRepository.getTokenForSeries("series3"));
+    assertNotNull(tokenRepository.getTokenForSeries("series4"));
+  }
+
+}
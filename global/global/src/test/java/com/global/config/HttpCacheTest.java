@@ -0,0 +1,119 @@
+package com.global.config;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HttpCacheTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  FragmentCache fragmentCache;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  UserAccount userAccount;
+
+  @BeforeEach
+  void beforeEach(){
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("cachetest");
+    signUpForm.setEmail("cachetest@gmail.com");
+    signUpForm.setPassword("12345678");
+    userAccount = new UserAccount(accountService.processNewAccount(signUpForm));
+    fragmentCache.clear();
+  }
+
+  @AfterEach
+  void afterEach(){
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("프로필 화면 - ETag 를 보내고, 같은 ETag 로 다시 요청하면 304")
+  @Test
+  void profile_etag() throws Exception {
+    String etag = mockMvc.perform(get("/profile/cachetest"))
+                         .andExpect(status().isOk())
+                         .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                         .andExpect(header().string(HttpHeaders.VARY, containsString("Cookie")))
+                         .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertNotNull(etag);
+
+    mockMvc.perform(get("/profile/cachetest").header(HttpHeaders.IF_NONE_MATCH, etag))
+           .andExpect(status().isNotModified())
+           .andExpect(content().string(""));
+  }
+
+  @DisplayName("첫 화면(/)은 templates/index.html 을 그리고, identicon 은 서버에서 만든 이미지를 사용함")
+  @Test
+  void index_is_rendered_from_template() throws Exception {
+    String index = mockMvc.perform(get("/").with(user(userAccount)))
+                          .andExpect(status().isOk())
+                          .andExpect(header().exists(HttpHeaders.ETAG))
+                          .andReturn().getResponse().getContentAsString();
+    assertThat(index, containsString("/identicon/"));
+    assertThat(index, not(containsString("th:href")));
+    assertThat(index, not(containsString("data-jdenticon-value")));
+  }
+
+  @DisplayName("main-nav 는 한 번만 그리고, 로그인한 회원과 로그인하지 않은 사용자는 따로 보관함")
+  @Test
+  void mainNav_is_cached_per_principal() throws Exception {
+    MockHttpServletResponse first = viewProfile(get("/profile/cachetest").with(user(userAccount)));
+    assertThat(first.getContentAsString(), containsString("/settings/profile"));
+    // CSRF token 이 session 에 저장되므로 같은 session(cookie)으로 다시 요청함
+    MockHttpServletResponse second = viewProfile(get("/profile/cachetest").with(user(userAccount))
+                                                                         .cookie(first.getCookie("SESSION")));
+    assertEquals(first.getContentAsString(), second.getContentAsString());
+    assertEquals(1, fragmentCache.size());
+
+    String anonymous = viewProfile(get("/profile/cachetest")).getContentAsString();
+    assertThat(anonymous, not(containsString("/settings/profile")));
+    assertThat(anonymous, containsString("/sign-up"));
+    assertEquals(2, fragmentCache.size());
+  }
+
+  @DisplayName("로그인해야 볼 수 있는 화면은 Spring Security 의 기본값(no-store)을 그대로 사용함")
+  @Test
+  void settings_are_not_stored() throws Exception {
+    mockMvc.perform(get("/settings/password").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")))
+           .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+
+  private MockHttpServletResponse viewProfile(MockHttpServletRequestBuilder builder) throws Exception {
+    return mockMvc.perform(builder)
+                  .andExpect(status().isOk())
+                  .andReturn().getResponse();
+  }
+
+}
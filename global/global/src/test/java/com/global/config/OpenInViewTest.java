@@ -0,0 +1,106 @@
+package com.global.config;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import com.global.domain.Notification;
+import com.global.domain.NotificationType;
+import com.global.notification.NotificationRepository;
+import com.global.notification.NotificationService;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// open-in-view 를 껐으므로 화면을 그리는 동안에는 DB 를 조회할 수 없음
+//  ㄴ 화면에서 LAZY 로 가져오는 값을 읽으면 LazyInitializationException 으로 요청이 실패함
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenInViewTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ApplicationContext applicationContext;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  NotificationService notificationService;
+
+  @Autowired
+  NotificationRepository notificationRepository;
+
+  Account account;
+
+  UserAccount userAccount;
+
+  @BeforeEach
+  void beforeEach(){
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("osivtest");
+    signUpForm.setEmail("osivtest@gmail.com");
+    signUpForm.setPassword("12345678");
+    account = accountService.processNewAccount(signUpForm);
+    userAccount = new UserAccount(account);
+  }
+
+  @AfterEach
+  void afterEach(){
+    notificationRepository.deleteAll();
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("요청마다 EntityManager 를 열어 두는 interceptor 가 등록되지 않음")
+  @Test
+  void openInView_disabled() {
+    assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+  }
+
+  @DisplayName("Transaction 밖에서 LAZY 연관 entity 를 읽으면 실패함")
+  @Test
+  void lazyLoad_outsideTransaction() {
+    notificationService.notify(account, NotificationType.STUDY_CREATED, "study1", null, "/study/1");
+    List<Notification> notifications = notificationService.list(account.getId(), false, null, null, 10);
+
+    assertThrows(LazyInitializationException.class, () -> notifications.get(0).getAccount().getNickName());
+  }
+
+  @DisplayName("설정, 알림 화면은 미리 만든 값만으로 그림")
+  @Test
+  void render_withoutLazyLoad() throws Exception {
+    notificationService.notify(account, NotificationType.STUDY_CREATED, "study1", null, "/study/1");
+
+    mockMvc.perform(get("/settings/profile").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(content().string(containsString("osivtest")));
+    mockMvc.perform(get("/settings/password").with(user(userAccount)))
+           .andExpect(status().isOk());
+    mockMvc.perform(get("/notifications").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(content().string(containsString("study1")));
+  }
+
+}
@@ -0,0 +1,87 @@
+package com.global.config;
+
+import com.global.account.AccountRepository;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 비밀번호 계산이 거절되면 (BoundedPasswordEncoder) 500 이 아니라 form 에 error 를 보여줌
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordEncoderBusyTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @MockBean
+  PasswordEncoder passwordEncoder;
+
+  @AfterEach
+  void afterEach(){
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("회원 가입 - 비밀번호 계산이 거절되면 503 으로 form 을 다시 보여주고 가입시키지 않음")
+  @Test
+  void signUp_when_busy() throws Exception {
+    when(passwordEncoder.encode(any())).thenThrow(new PasswordEncoderBusyException(new RejectedExecutionException()));
+
+    mockMvc.perform(post("/sign-up")
+           .param("nickName", "busytest")
+           .param("email", "busytest@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(status().isServiceUnavailable())
+           .andExpect(view().name("account/sign-up"))
+           .andExpect(model().attributeHasFieldErrorCode("signUpForm", "password", "busy"))
+           .andExpect(unauthenticated());
+
+    assertFalse(accountRepository.existsByEmail("busytest@gmail.com"));
+  }
+
+  @DisplayName("비밀번호 변경 - 비밀번호 계산이 거절되면 503 으로 form 을 다시 보여줌")
+  @Test
+  void updatePassword_when_busy() throws Exception {
+    Account account = accountRepository.save(Account.builder()
+                                                    .nickName("busytest")
+                                                    .email("busytest@gmail.com")
+                                                    .password("{noop}12345678")
+                                                    .build());
+    when(passwordEncoder.encode(any())).thenThrow(new PasswordEncoderBusyException(new RejectedExecutionException()));
+
+    mockMvc.perform(post("/settings/password")
+           .param("newPassword", "87654321")
+           .param("newPasswordConfirm", "87654321")
+           .with(user(new UserAccount(account)))
+           .with(csrf()))
+           .andExpect(status().isServiceUnavailable())
+           .andExpect(view().name("settings/password"))
+           .andExpect(model().attributeHasFieldErrorCode("passwordForm", "newPassword", "busy"))
+           .andExpect(model().attributeExists("account"));
+
+    assertEquals("{noop}12345678", accountRepository.findByEmail("busytest@gmail.com").getPassword());
+  }
+
+}
@@ -0,0 +1,67 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"app.rate-limit.login-per-username=2", "app.rate-limit.email-token-per-ip=1"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @DisplayName("같은 email/nickName 으로 로그인을 반복하면 비밀번호를 확인하기 전에 429 로 거절함")
+  @Test
+  void login_is_limited_by_username() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(post("/login")
+             .param("username", "ratelimit")
+             .param("password", "wrong-password")
+             .with(csrf()))
+             .andExpect(redirectedUrl("/login?error"));
+    }
+    long matches = meterRegistry.timer("password.matches").count();
+
+    // 대소문자만 다른 email/nickName 도 같은 회원으로 셈
+    mockMvc.perform(post("/login")
+           .param("username", "RateLimit")
+           .param("password", "wrong-password")
+           .with(csrf()))
+           .andExpect(status().isTooManyRequests())
+           .andExpect(header().exists("Retry-After"));
+
+    assertEquals(matches, meterRegistry.timer("password.matches").count());
+    assertEquals(1, meterRegistry.counter("rate-limit.rejected", "limiter", "login-username").count());
+
+    // 다른 회원은 제한받지 않음
+    mockMvc.perform(post("/login")
+           .param("username", "other")
+           .param("password", "wrong-password")
+           .with(csrf()))
+           .andExpect(redirectedUrl("/login?error"));
+  }
+
+  @DisplayName("인증 메일 확인을 반복하면 429 로 거절함")
+  @Test
+  void checkEmailToken_is_limited_by_ip() throws Exception {
+    mockMvc.perform(get("/check-email-token").param("token", "wrong"))
+           .andExpect(status().isOk());
+    mockMvc.perform(get("/check-email-token").param("token", "wrong"))
+           .andExpect(status().isTooManyRequests());
+  }
+
+}
@@ -0,0 +1,43 @@
+package com.global.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @DisplayName("capacity 개까지 허용하고, 그 다음은 기다려야 하는 시간을 return 함")
+  @Test
+  void acquire() {
+    RateLimiter rateLimiter = new RateLimiter("test", 2, Duration.ofHours(1), 100, meterRegistry);
+
+    assertTrue(rateLimiter.acquire("a").isZero());
+    assertTrue(rateLimiter.acquire("a").isZero());
+    Duration wait = rateLimiter.acquire("a");
+    assertFalse(wait.isZero());
+    // 1 시간에 2 개가 채워지므로 다음 token 까지 30 분 정도 남음
+    assertTrue(wait.compareTo(Duration.ofMinutes(29)) > 0 && wait.compareTo(Duration.ofMinutes(31)) < 0, wait.toString());
+
+    // key 마다 따로 셈
+    assertTrue(rateLimiter.acquire("b").isZero());
+    assertEquals(1, meterRegistry.counter("rate-limit.rejected", "limiter", "test").count());
+  }
+
+  @DisplayName("시간이 지나면 token 이 다시 채워짐")
+  @Test
+  void refill() throws InterruptedException {
+    RateLimiter rateLimiter = new RateLimiter("test", 1, Duration.ofMillis(50), 100, meterRegistry);
+
+    assertTrue(rateLimiter.acquire("a").isZero());
+    assertFalse(rateLimiter.acquire("a").isZero());
+    Thread.sleep(60);
+    assertTrue(rateLimiter.acquire("a").isZero());
+  }
+
+}
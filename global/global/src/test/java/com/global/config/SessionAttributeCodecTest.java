@@ -0,0 +1,134 @@
+package com.global.config;
+
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.web.servlet.FlashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionAttributeCodecTest {
+
+  SessionAttributeCodec codec = new SessionAttributeCodec(1024, getClass().getClassLoader());
+
+  @DisplayName("로그인 정보(SecurityContext)를 저장했다가 그대로 읽어옴")
+  @Test
+  void securityContext_roundTrip() {
+    Account account = Account.builder()
+                             .id(1L)
+                             .email("codectest@gmail.com")
+                             .nickName("codectest")
+                             .password("12345678")
+                             .build();
+    UserAccount userAccount = new UserAccount(account);
+    userAccount.eraseCredentials();
+    SecurityContext context = new SecurityContextImpl(
+      new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities()));
+
+    ((UsernamePasswordAuthenticationToken) context.getAuthentication())
+      .setDetails(new WebAuthenticationDetails("127.0.0.1", "session-id"));
+
+    byte[] bytes = codec.serialize(context);
+    assertEquals(SessionAttributeCodec.SECURITY_CONTEXT, bytes[0]);
+    // Java 직렬화 결과는 대부분이 class 정보이므로 압축해도 필드 값만 쓴 것보다 훨씬 큼
+    byte[] java = new SessionAttributeCodec(0, getClass().getClassLoader(), false).serialize(context);
+    assertEquals(SessionAttributeCodec.DEFLATED, java[0]);
+    assertTrue(bytes.length * 5 < java.length, bytes.length + " / " + java.length);
+
+    SecurityContext restored = (SecurityContext) codec.deserialize(bytes);
+    assertEquals(context, restored);
+    UserAccount principal = (UserAccount) restored.getAuthentication().getPrincipal();
+    assertEquals("codectest", principal.getUsername());
+    assertEquals(1L, principal.getAccountId());
+    assertEquals("codectest@gmail.com", principal.getEmail());
+    assertNull(principal.getPassword());
+    assertTrue(restored.getAuthentication().isAuthenticated());
+    assertEquals(new WebAuthenticationDetails("127.0.0.1", "session-id"), restored.getAuthentication().getDetails());
+
+    // 예전에 Java 직렬화로 저장한 session 도 읽을 수 있음
+    assertEquals(context, codec.deserialize(java));
+  }
+
+  @DisplayName("CSRF token 은 값만 저장함")
+  @Test
+  void csrfToken_roundTrip() {
+    DefaultCsrfToken token = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "3f1c2b7e-8a9d-4e6f-b1c2-d3e4f5a6b7c8");
+
+    byte[] bytes = codec.serialize(token);
+    assertEquals(SessionAttributeCodec.CSRF_TOKEN, bytes[0]);
+    DefaultCsrfToken restored = (DefaultCsrfToken) codec.deserialize(bytes);
+    assertEquals("X-CSRF-TOKEN", restored.getHeaderName());
+    assertEquals("_csrf", restored.getParameterName());
+    assertEquals(token.getToken(), restored.getToken());
+  }
+
+  @DisplayName("문자열만 담긴 flash attribute 는 값만 저장하고, 다른 값이 있으면 Java 직렬화를 사용함")
+  @Test
+  void flashMaps_roundTrip() {
+    FlashMap flashMap = new FlashMap();
+    flashMap.setTargetRequestPath("/settings/profile");
+    flashMap.addTargetRequestParam("tab", "profile");
+    flashMap.startExpirationPeriod(180);
+    flashMap.put("message", "프로필이 수정되었습니다.");
+    List<FlashMap> flashMaps = new CopyOnWriteArrayList<>(List.of(flashMap));
+
+    byte[] bytes = codec.serialize(flashMaps);
+    assertEquals(SessionAttributeCodec.FLASH_MAPS, bytes[0]);
+    @SuppressWarnings("unchecked")
+    List<FlashMap> restored = (List<FlashMap>) codec.deserialize(bytes);
+    assertEquals(1, restored.size());
+    assertEquals(flashMap, restored.get(0));
+    assertEquals("/settings/profile", restored.get(0).getTargetRequestPath());
+    assertEquals(flashMap.getTargetRequestParams(), restored.get(0).getTargetRequestParams());
+    assertEquals(flashMap.getExpirationTime(), restored.get(0).getExpirationTime());
+
+    flashMap.put("count", 1);
+    assertEquals(SessionAttributeCodec.RAW, codec.serialize(flashMaps)[0]);
+  }
+
+  @DisplayName("remember-me 로 로그인한 경우에는 Java 직렬화를 사용함")
+  @Test
+  void rememberMe_fallsBackToJava() {
+    UserAccount userAccount = new UserAccount(Account.builder().id(2L).email("rememberme@gmail.com")
+                                                     .nickName("rememberme").password("12345678").build());
+    SecurityContext context = new SecurityContextImpl(
+      new RememberMeAuthenticationToken("key", userAccount, userAccount.getAuthorities()));
+
+    byte[] bytes = codec.serialize(context);
+    assertEquals(SessionAttributeCodec.DEFLATED, bytes[0]);
+    assertEquals(context, codec.deserialize(bytes));
+  }
+
+  @DisplayName("큰 attribute 는 압축해서 저장함")
+  @Test
+  void largeAttribute_isDeflated() {
+    List<String> messages = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      messages.add("비밀번호를 변경했습니다 " + i);
+    }
+
+    byte[] bytes = codec.serialize(messages);
+    assertEquals(SessionAttributeCodec.DEFLATED, bytes[0]);
+    assertEquals(messages, codec.deserialize(bytes));
+  }
+
+  @DisplayName("알 수 없는 형식이거나 중간에 끝나면 예외가 발생함")
+  @Test
+  void unknownHeader() {
+    assertThrows(IllegalArgumentException.class, () -> codec.deserialize(new byte[]{9, 1, 2}));
+    assertThrows(IllegalArgumentException.class,
+                 () -> codec.deserialize(new byte[]{SessionAttributeCodec.CSRF_TOKEN, 10, 'a'}));
+  }
+
+}
@@ -0,0 +1,48 @@
+package com.global.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+  ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+    .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+    .withUserConfiguration(VirtualThreadConfig.class);
+
+  @DisplayName("설정하지 않으면 VirtualThreadConfig 를 사용하지 않음")
+  @Test
+  void disabled_by_default() {
+    contextRunner.run(context -> assertFalse(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+  }
+
+  @DisplayName("app.threads.virtual=true : JDK 24 이상이면 virtual thread 에서 실행하고, 아니면 시작되지 않음")
+  @Test
+  void enabled() {
+    contextRunner.withPropertyValues("app.threads.virtual=true").run(context -> {
+      if (!VirtualThreads.isSupported()) {
+        assertNotNull(context.getStartupFailure());
+        return;
+      }
+      AsyncTaskExecutor executor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                                                   AsyncTaskExecutor.class);
+      assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get(1, TimeUnit.SECONDS));
+    });
+  }
+
+  @DisplayName("JDK 21 ~ 23 은 synchronized 에서 carrier thread 가 묶이므로 사용하지 않음")
+  @Test
+  void requires_jdk24() {
+    assertFalse(VirtualThreads.supports(21));
+    assertFalse(VirtualThreads.supports(23));
+    assertTrue(VirtualThreads.supports(24));
+  }
+
+}
@@ -0,0 +1,167 @@
+package com.global.image;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"app.image.store-dir=target/test-images", "app.image.max-pixels=1000000"})
+@AutoConfigureMockMvc
+class ImageControllerTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ProfileImageService profileImageService;
+
+  @Autowired
+  IdenticonGenerator identiconGenerator;
+
+  @DisplayName("프로필 사진 저장 - data URL 을 저장하고 URL 을 받음")
+  @Test
+  void saveProfileImage() throws Exception {
+    String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(png());
+
+    String url = profileImageService.save(dataUrl);
+    assertTrue(url.startsWith("/images/profile/"));
+    // 같은 사진은 같은 URL 로 저장됨
+    assertEquals(url, profileImageService.save(dataUrl));
+    // 이미 저장된 URL 이 넘어오면 그대로 사용함
+    assertEquals(url, profileImageService.save(url));
+    // 빈 값이면 사진을 지운 것
+    assertNull(profileImageService.save(""));
+  }
+
+  @DisplayName("프로필 사진 보기 - ETag 와 cache 설정이 있어야 함")
+  @Test
+  void profileImage() throws Exception {
+    String url = profileImageService.save("data:image/png;base64," + Base64.getEncoder().encodeToString(png()));
+    String hash = url.substring("/images/profile/".length());
+
+    mockMvc.perform(get(url))
+           .andExpect(status().isOk())
+           .andExpect(content().contentType("image/png"))
+           .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+           .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+
+    // browser 가 이미 갖고 있는 image 이면 304 로 응답함
+    mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+           .andExpect(status().isNotModified());
+  }
+
+  @DisplayName("줄인 프로필 사진 보기 - 정사각형으로 줄인 image 를 보여줌")
+  @Test
+  void profileThumbnail() throws Exception {
+    String url = profileImageService.save("data:image/png;base64," + Base64.getEncoder().encodeToString(png(300, 200)));
+
+    byte[] thumbnail = mockMvc.perform(get(url + "/24"))
+                              .andExpect(status().isOk())
+                              // 투명한 부분이 없는 사진은 JPEG 로 줄임
+                              .andExpect(content().contentType("image/jpeg"))
+                              .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                              .andReturn().getResponse().getContentAsByteArray();
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+    assertEquals(24, image.getWidth());
+    assertEquals(24, image.getHeight());
+
+    // 정해진 크기가 아니면 보여주지 않음
+    mockMvc.perform(get(url + "/100"))
+           .andExpect(status().isNotFound());
+  }
+
+  @DisplayName("줄인 프로필 사진 - 큰 사진은 건너뛰면서 읽어도 정해진 크기로 줄임")
+  @Test
+  void profileThumbnail_subsampled() throws Exception {
+    String url = profileImageService.save("data:image/png;base64," + Base64.getEncoder().encodeToString(binaryPng(1200, 800)));
+
+    byte[] thumbnail = mockMvc.perform(get(url + "/256"))
+                              .andExpect(status().isOk())
+                              .andReturn().getResponse().getContentAsByteArray();
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+    assertEquals(256, image.getWidth());
+    assertEquals(256, image.getHeight());
+  }
+
+  @DisplayName("프로필 사진 저장 - 파일은 작아도 픽셀 수가 너무 많으면 풀지 않고 거절함")
+  @Test
+  void saveProfileImage_too_many_pixels() throws Exception {
+    // 한 가지 색의 흑백 image 는 압축하면 몇 KB 밖에 안 됨
+    byte[] bomb = binaryPng(2000, 1000);
+    assertTrue(bomb.length < 1024 * 1024);
+
+    String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(bomb);
+    assertThrows(IllegalArgumentException.class, () -> profileImageService.save(dataUrl));
+  }
+
+  @DisplayName("프로필 사진 보기 - 없는 사진이거나 잘못된 hash 인 경우")
+  @Test
+  void profileImage_not_found() throws Exception {
+    mockMvc.perform(get("/images/profile/" + "0".repeat(64)))
+           .andExpect(status().isNotFound());
+    mockMvc.perform(get("/images/profile/not-a-hash"))
+           .andExpect(status().isNotFound());
+  }
+
+  @DisplayName("identicon 보기 - 같은 nickName 은 항상 같은 SVG 이고 cache 설정이 있어야 함")
+  @Test
+  void identicon() throws Exception {
+    String url = identiconGenerator.url("identicon");
+    assertEquals(url, identiconGenerator.url("identicon"));
+    assertNotEquals(url, identiconGenerator.url("identicon2"));
+    String hash = url.substring(IdenticonGenerator.IDENTICON_URL.length());
+
+    String svg = mockMvc.perform(get(url))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType("image/svg+xml"))
+                        .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                        .andReturn().getResponse().getContentAsString();
+    assertTrue(svg.startsWith("<svg"));
+    // 한 번 만든 SVG 는 cache 에서 그대로 꺼냄
+    assertSame(identiconGenerator.svg(hash), identiconGenerator.svg(hash));
+
+    mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+           .andExpect(status().isNotModified());
+  }
+
+  @DisplayName("identicon 보기 - 잘못된 hash 인 경우")
+  @Test
+  void identicon_not_found() throws Exception {
+    mockMvc.perform(get(IdenticonGenerator.IDENTICON_URL + "not-a-hash"))
+           .andExpect(status().isNotFound());
+  }
+
+  private byte[] png() throws IOException {
+    return png(2, 2);
+  }
+
+  private byte[] binaryPng(int width, int height) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY), "png", out);
+    return out.toByteArray();
+  }
+
+  private byte[] png(int width, int height) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    image.setRGB(0, 0, 0xFF0000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+}
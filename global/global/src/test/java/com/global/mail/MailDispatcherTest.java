@@ -0,0 +1,140 @@
+package com.global.mail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailDispatcherTest {
+
+  // ConsoleMailSender 를 상속해서 보낸 메일을 기록하고,
+  // 처음 failTimes 번은 일부러 실패하는 JavaMailSender
+  static class RecordingMailSender extends ConsoleMailSender {
+    final List<SimpleMailMessage[]> batches = new CopyOnWriteArrayList<>();
+    final AtomicInteger failTimes = new AtomicInteger();
+
+    @Override
+    public void send(SimpleMailMessage... simpleMailMessages) {
+      if (failTimes.getAndDecrement() > 0) {
+        throw new MailSendException("SMTP 서버 응답 없음");
+      }
+      batches.add(simpleMailMessages);
+      super.send(simpleMailMessages);
+    }
+
+    int sentCount() {
+      return batches.stream().mapToInt(batch -> batch.length).sum();
+    }
+  }
+
+  RecordingMailSender mailSender = new RecordingMailSender();
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  MailDispatcher mailDispatcher = new MailDispatcher(mailSender, meterRegistry, 100, 1, 10, 3,
+                                                     Duration.ofMillis(10), Duration.ofMillis(10), false);
+
+  @AfterEach
+  void afterEach() throws InterruptedException {
+    mailDispatcher.stop();
+  }
+
+  @DisplayName("queue 에 쌓인 메일을 모아서 보냄")
+  @Test
+  void sendInBatch() throws Exception {
+    // worker 를 시작하기 전에 넣어 두면 한 번에 모아서 보내게 됨
+    for (int i = 0; i < 5; i++) {
+      mailDispatcher.enqueue(message("user" + i + "@gmail.com"));
+    }
+    mailDispatcher.start();
+
+    // mail.sent 는 보내고 난 뒤에 늘어나므로 그것까지 기다림
+    waitUntil(() -> meterRegistry.counter("mail.sent").count() == 5);
+    assertEquals(5, mailSender.sentCount());
+    assertEquals(1, mailSender.batches.size());
+    assertEquals(0, mailDispatcher.getQueueSize());
+  }
+
+  @DisplayName("보내기에 실패하면 다시 보냄")
+  @Test
+  void retryOnFailure() throws Exception {
+    mailSender.failTimes.set(2);
+    mailDispatcher.start();
+    mailDispatcher.enqueue(message("retry@gmail.com"));
+
+    waitUntil(() -> mailSender.sentCount() == 1);
+    assertEquals(0, meterRegistry.counter("mail.failed").count());
+  }
+
+  @DisplayName("Transaction 안에서 넣은 메일은 commit 된 후에 queue 에 들어감")
+  @Test
+  void enqueueAfterCommit() throws Exception {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      mailDispatcher.enqueue(message("commit@gmail.com"));
+      assertEquals(0, mailDispatcher.getQueueSize());
+
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+      assertEquals(1, mailDispatcher.getQueueSize());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @DisplayName("enqueueAndWait 는 queue 가 가득 차면 버리지 않고 자리가 날 때까지 기다림")
+  @Test
+  void enqueueAndWait() throws Exception {
+    MailDispatcher small = new MailDispatcher(mailSender, meterRegistry, 1, 1, 10, 3,
+                                              Duration.ofMillis(10), Duration.ofMillis(10), false);
+    try {
+      // queue 에 한 통만 들어가므로 worker 가 보내는 속도에 맞춰서 넣게 됨
+      small.start();
+      for (int i = 0; i < 20; i++) {
+        assertTrue(small.enqueueAndWait(message("wait" + i + "@gmail.com")));
+      }
+      waitUntil(() -> mailSender.sentCount() == 20);
+      assertEquals(0, meterRegistry.counter("mail.dropped").count());
+    } finally {
+      small.stop();
+    }
+  }
+
+  @DisplayName("enqueueAndWait 는 Transaction 안에서 호출할 수 없음")
+  @Test
+  void enqueueAndWaitInTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      assertThrows(IllegalStateException.class, () -> mailDispatcher.enqueueAndWait(message("tx@gmail.com")));
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+  }
+
+  private SimpleMailMessage message(String to) {
+    SimpleMailMessage message = new SimpleMailMessage();
+    message.setTo(to);
+    message.setSubject("회원 가입 인증");
+    message.setText("/check-email-token?token=test&email=" + to);
+    return message;
+  }
+
+  private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "시간 안에 메일을 보내지 못했습니다");
+      Thread.sleep(10);
+    }
+  }
+
+}
@@ -3,6 +3,9 @@ package com.global.main;
 import com.global.account.AccountRepository;
 import com.global.account.AccountService;
 import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import com.global.config.CacheConfig;
+import com.global.domain.Account;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,8 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -38,6 +47,15 @@ class MainControllerTest {
   @Autowired
   AccountRepository accountRepository;
 
+  @Autowired
+  PasswordEncoder passwordEncoder;
+
+  @Autowired
+  CacheManager cacheManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
   // @BeforeEach [test1] @AfterEach @BeforeEach [test2] @AfterEach @BeforeEach [test3] @AfterEach
   // @BeforeEach : 모든 test 를 실행할 때마다
   //               먼저 실행되는 부분을 의미함
@@ -152,6 +170,107 @@ class MainControllerTest {
            .andExpect(unauthenticated());
   }
 
+  @DisplayName("로그인 후 session 에는 가벼운 principal 만 저장됨")
+  @Test
+  void login_principal_is_slim() throws Exception{
+    Account account = accountRepository.findByEmail("globaltest@gmail.com");
+
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(authenticated().withAuthentication(authentication -> {
+             UserAccount userAccount = (UserAccount) authentication.getPrincipal();
+             assertEquals(account.getId(), userAccount.getAccountId());
+             assertEquals("globaltest@gmail.com", userAccount.getEmail());
+             assertFalse(userAccount.isEmailVerified());
+             // 로그인이 끝나면 비밀번호는 지워짐
+             assertNull(userAccount.getPassword());
+           }));
+  }
+
+  @DisplayName("같은 회원으로 두 번 로그인 테스트 - 두 번째는 cache 에서 조회함")
+  @Test
+  void login_twice_with_cached_account() throws Exception{
+    // Spring Security 는 로그인이 끝나면 principal 의 password 를 지우므로
+    // cache 에 보관한 Account 를 그대로 쓰면 두 번째 로그인이 실패함
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(post("/login")
+             .param("username", "globaltest")
+             .param("password", "12345678")
+             .with(csrf()))
+             .andExpect(status().is3xxRedirection())
+             .andExpect(redirectedUrl("/"))
+             .andExpect(authenticated().withUsername("globaltest"));
+    }
+  }
+
+  @DisplayName("비밀번호 변경 후 로그인 테스트 - 예전 비밀번호는 cache 에 남지 않음")
+  @Test
+  void login_after_password_changed() throws Exception{
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(authenticated().withUsername("globaltest"));
+
+    Account account = accountRepository.findByEmail("globaltest@gmail.com");
+    accountService.updatePassword(new UserAccount(account), account.getVersion(), "87654321");
+
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(redirectedUrl("/login?error"))
+           .andExpect(unauthenticated());
+
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest@gmail.com")
+           .param("password", "87654321")
+           .with(csrf()))
+           .andExpect(redirectedUrl("/"))
+           .andExpect(authenticated().withUsername("globaltest"));
+  }
+
+  @DisplayName("로그인 cache 는 비밀번호 변경이 commit 된 뒤에 지워짐")
+  @Test
+  void login_cache_evicted_after_commit() throws Exception{
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest@gmail.com")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(authenticated().withUsername("globaltest"));
+    Cache cache = cacheManager.getCache(CacheConfig.LOGIN_ACCOUNTS);
+    assertNotNull(cache.get("globaltest@gmail.com"));
+
+    Account account = accountRepository.findByEmail("globaltest@gmail.com");
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      accountService.updatePassword(new UserAccount(account), account.getVersion(), "87654321");
+      // 아직 commit 전이므로 다른 요청이 예전 값을 다시 cache 에 넣지 않도록 그대로 둠
+      assertNotNull(cache.get("globaltest@gmail.com"));
+    });
+    assertNull(cache.get("globaltest@gmail.com"));
+  }
+
+  @DisplayName("예전 strength 로 저장된 비밀번호는 로그인하면 다시 저장됨")
+  @Test
+  void login_upgrades_weak_password_hash() throws Exception{
+    // strength 4 로 저장된 비밀번호 ($2a$04$...)
+    Account account = accountRepository.findByEmail("globaltest@gmail.com");
+    account.setPassword("{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678"));
+    accountRepository.save(account);
+
+    mockMvc.perform(post("/login")
+           .param("username", "globaltest")
+           .param("password", "12345678")
+           .with(csrf()))
+           .andExpect(authenticated().withUsername("globaltest"));
+
+    String upgraded = accountRepository.findByEmail("globaltest@gmail.com").getPassword();
+    assertFalse(upgraded.startsWith("{bcrypt}$2a$04$"));
+    assertTrue(passwordEncoder.matches("12345678", upgraded));
+  }
+
   @WithMockUser
   @DisplayName("로그아웃 테스트")
   @Test
@@ -0,0 +1,226 @@
+package com.global.notification;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import com.global.domain.Notification;
+import com.global.domain.NotificationChannel;
+import com.global.domain.NotificationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 알림을 저장한 transaction 이 commit 된 뒤에 읽지 않은 알림 수가 바뀌므로 @Transactional 을 붙이지 않고 직접 지움
+@SpringBootTest(properties = {"app.notification.page-size=2", "app.notification.subscriber-chunk-size=2"})
+@AutoConfigureMockMvc
+class NotificationControllerTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  NotificationService notificationService;
+
+  @Autowired
+  NotificationRepository notificationRepository;
+
+  @Autowired
+  UnreadNotificationCounter unreadNotificationCounter;
+
+  @Autowired
+  NotificationSubscribers notificationSubscribers;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  Account account;
+
+  UserAccount userAccount;
+
+  @BeforeEach
+  void beforeEach(){
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("notificationtest");
+    signUpForm.setEmail("notificationtest@gmail.com");
+    signUpForm.setPassword("12345678");
+    account = accountService.processNewAccount(signUpForm);
+    // 가입할 때는 모든 알림을 웹으로 받으므로 하나만 끔
+    account.setNotified(NotificationType.STUDY_UPDATED, NotificationChannel.WEB, false);
+    account = accountRepository.save(account);
+    userAccount = new UserAccount(account);
+  }
+
+  @AfterEach
+  void afterEach(){
+    notificationRepository.deleteAll();
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("웹으로 받겠다고 설정한 알림만 저장하고, 읽지 않은 알림 수를 늘림")
+  @Test
+  void notify_byWeb() {
+    assertEquals(0, unreadNotificationCounter.get(account.getId()));
+
+    assertNotNull(notificationService.notify(account, NotificationType.STUDY_CREATED, "new study", null, "/study/1"));
+    assertNull(notificationService.notify(account, NotificationType.STUDY_UPDATED, "updated", null, "/study/1"));
+
+    assertEquals(1, notificationRepository.count());
+    // DB 에서 다시 세지 않고 memory 의 값을 늘림
+    assertEquals(1, unreadNotificationCounter.get(account.getId()));
+  }
+
+  @DisplayName("알림을 받겠다고 설정하고 인증을 마친 회원에게만 한꺼번에 알림을 보냄")
+  @Test
+  void notifySubscribers() {
+    // 인증을 마친 회원 3 명 : 웹으로 받음, 이메일로만 받음, 받지 않음
+    Account byWeb = verifiedAccount("byweb", NotificationChannel.WEB);
+    Account byEmail = verifiedAccount("byemail", NotificationChannel.EMAIL);
+    verifiedAccount("none", null);
+
+    List<Long> webSubscribers = new ArrayList<>();
+    notificationSubscribers.forEachChunk(NotificationType.STUDY_ENROLLMENT, NotificationChannel.WEB,
+                                         chunk -> chunk.forEach(s -> webSubscribers.add(s.getId())));
+    assertEquals(List.of(byWeb.getId()), webSubscribers);
+    List<String> emailSubscribers = new ArrayList<>();
+    notificationSubscribers.forEachChunk(NotificationType.STUDY_ENROLLMENT, NotificationChannel.EMAIL,
+                                         chunk -> chunk.forEach(s -> emailSubscribers.add(s.getEmail())));
+    assertEquals(List.of(byEmail.getEmail()), emailSubscribers);
+
+    // 인증하지 않은 회원(beforeEach)은 웹으로 받도록 설정되어 있어도 보내지 않음
+    assertEquals(1, notificationService.notifySubscribers(NotificationType.STUDY_ENROLLMENT, "enrolled", null, "/study/1"));
+    assertEquals(1, unreadNotificationCounter.get(byWeb.getId()));
+    assertEquals(0, unreadNotificationCounter.get(account.getId()));
+  }
+
+  @DisplayName("받는 회원이 많으면 chunk 마다 따로 commit 하고, 이메일은 버리지 않고 모두 queue 에 넣음")
+  @Test
+  void notifySubscribers_chunks() throws Exception {
+    double sent = meterRegistry.counter("mail.sent").count();
+    // chunk-size 가 2 이므로 웹은 3 번에 나눠서 저장함
+    for (int i = 0; i < 5; i++) {
+      verifiedAccount("byweb" + i, NotificationChannel.WEB);
+      verifiedAccount("byemail" + i, NotificationChannel.EMAIL);
+    }
+
+    assertEquals(5, notificationService.notifySubscribers(NotificationType.STUDY_ENROLLMENT, "enrolled", null, "/study/1"));
+    assertEquals(5, notificationRepository.count());
+    assertEquals(0, meterRegistry.counter("mail.dropped").count());
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.counter("mail.sent").count() < sent + 5) {
+      assertTrue(System.nanoTime() < deadline, "시간 안에 메일을 보내지 못했습니다");
+      Thread.sleep(10);
+    }
+  }
+
+  @DisplayName("알림 목록 - 다음 page 는 앞 page 의 마지막 알림보다 오래된 알림")
+  @Test
+  void list_keyset() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      notificationService.notify(account, NotificationType.STUDY_CREATED, "study" + i, null, "/study/" + i);
+    }
+
+    List<Notification> first = notificationService.list(account.getId(), false, null, null, 2);
+    assertEquals(List.of("study3", "study2"), titles(first));
+    Notification last = first.get(1);
+    List<Notification> second = notificationService.list(account.getId(), false, last.getCreatedAt(), last.getId(), 2);
+    assertEquals(List.of("study1"), titles(second));
+
+    mockMvc.perform(get("/notifications").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(view().name("notification/list"))
+           .andExpect(model().attribute("unreadCount", 3L))
+           .andExpect(model().attribute("next", last))
+           .andExpect(content().string(containsString("study3")));
+
+    mockMvc.perform(get("/notifications").with(user(userAccount))
+                                         .param("createdAt", last.getCreatedAt().toString())
+                                         .param("id", last.getId().toString()))
+           .andExpect(status().isOk())
+           .andExpect(model().attributeDoesNotExist("next"))
+           .andExpect(content().string(containsString("study1")));
+  }
+
+  @DisplayName("읽음 처리 - 선택한 알림만, 또는 모두")
+  @Test
+  void markAsRead() throws Exception {
+    Notification first = notificationService.notify(account, NotificationType.STUDY_CREATED, "study1", null, "/study/1");
+    notificationService.notify(account, NotificationType.STUDY_CREATED, "study2", null, "/study/2");
+    notificationService.notify(account, NotificationType.STUDY_CREATED, "study3", null, "/study/3");
+    assertEquals(3, unreadNotificationCounter.get(account.getId()));
+
+    mockMvc.perform(post("/notifications/read").param("ids", first.getId().toString())
+                                               .with(user(userAccount))
+                                               .with(csrf()))
+           .andExpect(status().is3xxRedirection())
+           .andExpect(redirectedUrl("/notifications"));
+    assertTrue(notificationRepository.findById(first.getId()).orElseThrow().isChecked());
+    assertEquals(2, unreadNotificationCounter.get(account.getId()));
+
+    // 이미 읽은 알림은 다시 빼지 않음
+    notificationService.markAsRead(account.getId(), List.of(first.getId()));
+    assertEquals(2, unreadNotificationCounter.get(account.getId()));
+
+    mockMvc.perform(post("/notifications/read").with(user(userAccount)).with(csrf()))
+           .andExpect(status().is3xxRedirection());
+    assertEquals(0, notificationRepository.countByAccountIdAndCheckedFalse(account.getId()));
+    assertEquals(0, unreadNotificationCounter.get(account.getId()));
+  }
+
+  @DisplayName("main-nav 의 알림 종에 읽지 않은 알림 수를 보여줌")
+  @Test
+  void mainNav_unreadCount() throws Exception {
+    notificationService.notify(account, NotificationType.STUDY_CREATED, "study1", null, "/study/1");
+
+    mockMvc.perform(get("/notifications/old").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(content().string(containsString("badge-pill badge-info\">1</span>")));
+  }
+
+  private Account verifiedAccount(String nickName, NotificationChannel channel) {
+    Account subscriber = Account.builder()
+                                .email(nickName + "@gmail.com")
+                                .nickName(nickName)
+                                .password("12345678")
+                                .emailVerified(true)
+                                .build();
+    if (channel != null) {
+      subscriber.setNotified(NotificationType.STUDY_ENROLLMENT, channel, true);
+    }
+    // 다른 알림 설정이 켜져 있어도 STUDY_ENROLLMENT bit 로만 찾음
+    subscriber.setNotified(NotificationType.STUDY_CREATED, NotificationChannel.WEB, true);
+    return accountRepository.save(subscriber);
+  }
+
+  private static List<String> titles(List<Notification> notifications) {
+    return notifications.stream().map(Notification::getTitle).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,96 @@
+package com.global.search;
+
+import com.global.account.PublicProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+  @DisplayName("한글은 글자 2 개씩 겹치게 나누고, 한 글자 조각은 그대로 둠")
+  @Test
+  void tokenize() {
+    assertEquals(List.of("스프", "프링", "링부", "부트"), List.copyOf(NGramTokenizer.tokenize("스프링부트")));
+    assertEquals(List.of("김", "철수", "ja", "av", "va"), List.copyOf(NGramTokenizer.tokenize("김 철수-JAVA")));
+    assertEquals(Set.of("ㄱㄴ"), NGramTokenizer.tokenize("ㄱㄴ!!"));
+    assertTrue(NGramTokenizer.tokenize("  - ").isEmpty());
+  }
+
+  @DisplayName("검색어의 term 이 모두 있는 문서만, 가중치가 높은 문서부터 찾음")
+  @Test
+  void search_ranked() {
+    InvertedIndex<PublicProfile> index = profileIndex();
+    index.put(profile(1L, "백엔드개발", "스프링을 공부합니다"));
+    index.put(profile(2L, "스프링러버", null));
+    index.put(profile(3L, "프론트", "리액트"));
+
+    // nickName 에 있는 문서(가중치 3)가 소개에 있는 문서(가중치 1)보다 앞에 옴
+    InvertedIndex.Hits<PublicProfile> hits = index.search("스프링", 0, 10);
+    assertEquals(2, hits.getTotal());
+    assertEquals(List.of(2L, 1L), ids(hits));
+
+    assertEquals(0, index.search("스프링 리액트", 0, 10).getTotal());
+    assertEquals(0, index.search("없는말", 0, 10).getTotal());
+    assertEquals(0, index.search("", 0, 10).getTotal());
+  }
+
+  @DisplayName("다시 넣으면 예전 내용으로는 찾을 수 없고, 지운 문서는 찾을 수 없음")
+  @Test
+  void put_replaces() {
+    InvertedIndex<PublicProfile> index = profileIndex();
+    index.put(profile(1L, "member1", "자바"));
+    index.put(profile(1L, "member1", "코틀린"));
+    assertEquals(0, index.search("자바", 0, 10).getTotal());
+    assertEquals(List.of(1L), ids(index.search("코틀린", 0, 10)));
+    assertEquals(1, index.size());
+
+    index.remove(1L);
+    assertEquals(0, index.search("코틀린", 0, 10).getTotal());
+    assertEquals(0, index.size());
+  }
+
+  @DisplayName("page 를 나눠서 찾고, 여러 번 바꿔서 compact 한 뒤에도 같은 결과가 나옴")
+  @Test
+  void search_paging_after_compact() {
+    InvertedIndex<PublicProfile> index = profileIndex();
+    index.rebuild(IntStream.range(0, 100).mapToObj(i -> profile((long) i, "member" + i, "서울 개발자")));
+    // 점수가 같으면 나중에 넣은 문서부터
+    assertEquals(List.of(99L, 98L, 97L), ids(index.search("서울", 0, 3)));
+    assertEquals(List.of(96L, 95L, 94L), ids(index.search("서울", 3, 3)));
+    assertEquals(100, index.search("서울", 0, 3).getTotal());
+
+    for (int round = 0; round < 30; round++) {
+      for (long id = 0; id < 100; id++) {
+        index.put(profile(id, "member" + id, round % 2 == 0 ? "부산 개발자" : "서울 개발자"));
+      }
+    }
+    assertEquals(100, index.size());
+    assertEquals(100, index.search("서울 개발자", 0, 100).getTotal());
+    assertEquals(0, index.search("부산", 0, 100).getTotal());
+    assertEquals(List.of(99L), ids(index.search("member99", 0, 10)));
+  }
+
+  private static InvertedIndex<PublicProfile> profileIndex() {
+    return new InvertedIndex<>(PublicProfile::getId, profile -> Stream.of(
+      Map.entry(profile.getNickName(), 3), Map.entry(profile.getBio() == null ? "" : profile.getBio(), 1))
+      .flatMap(field -> NGramTokenizer.tokenize(field.getKey()).stream().map(term -> Map.entry(term, field.getValue())))
+      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Math::max)));
+  }
+
+  private static PublicProfile profile(Long id, String nickName, String bio) {
+    return new PublicProfile(id, nickName, bio, null, null, null, null, true, null);
+  }
+
+  private static List<Long> ids(InvertedIndex.Hits<PublicProfile> hits) {
+    return hits.getDocuments().stream().map(PublicProfile::getId).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.global.search;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.PublicProfile;
+import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import com.global.settings.Profile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 가입, 프로필 수정이 commit 된 뒤에 색인이 바뀌므로 @Transactional 을 붙이지 않고 직접 지움
+@SpringBootTest(properties = "app.search.page-size=1")
+@AutoConfigureMockMvc
+class SearchControllerTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  ProfileSearch profileSearch;
+
+  Account account;
+
+  @BeforeEach
+  void beforeEach(){
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("검색테스트");
+    signUpForm.setEmail("searchtest@gmail.com");
+    signUpForm.setPassword("12345678");
+    account = accountService.processNewAccount(signUpForm);
+  }
+
+  @AfterEach
+  void afterEach(){
+    accountRepository.deleteAll();
+    profileSearch.rebuild();
+  }
+
+  @DisplayName("가입한 회원은 바로 검색되고, 로그인하지 않아도 검색할 수 있음")
+  @Test
+  void search_anonymous() throws Exception {
+    mockMvc.perform(get("/search/study").param("keyword", "검색"))
+           .andExpect(status().isOk())
+           .andExpect(view().name("search"))
+           .andExpect(model().attribute("total", 1))
+           .andExpect(model().attribute("profiles", hasSize(1)))
+           .andExpect(content().string(containsString("/profile/")));
+
+    mockMvc.perform(get("/search/study").param("keyword", "  "))
+           .andExpect(status().isOk())
+           .andExpect(model().attribute("total", 0));
+  }
+
+  @DisplayName("프로필을 수정하면 바뀐 내용으로 검색되고, page 를 나눠서 보여줌")
+  @Test
+  void search_afterProfileUpdate() throws Exception {
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("spring-dev");
+    signUpForm.setEmail("springdev@gmail.com");
+    signUpForm.setPassword("12345678");
+    accountService.processNewAccount(signUpForm);
+
+    Profile profile = new Profile(account);
+    profile.setOccupation("Spring 개발자");
+    accountService.updateProfile(new UserAccount(account), profile);
+
+    // nickName 에 있는 회원이 직업에 있는 회원보다 앞에 옴
+    List<PublicProfile> first = profileSearch.search("spring", 0, 10).getDocuments();
+    assertEquals(List.of("spring-dev", "검색테스트"), List.of(first.get(0).getNickName(), first.get(1).getNickName()));
+
+    mockMvc.perform(get("/search/study").param("keyword", "spring").param("page", "1"))
+           .andExpect(status().isOk())
+           .andExpect(model().attribute("total", 2))
+           .andExpect(model().attribute("hasNext", false))
+           .andExpect(content().string(containsString("Spring 개발자")));
+  }
+
+  @DisplayName("page 가 아주 커도 offset 이 넘치지 않고 빈 page 를 보여줌")
+  @Test
+  void search_hugePage() throws Exception {
+    mockMvc.perform(get("/search/study").param("keyword", "검색").param("page", String.valueOf(Integer.MAX_VALUE)))
+           .andExpect(status().isOk())
+           .andExpect(model().attribute("total", 1))
+           .andExpect(model().attribute("profiles", hasSize(0)))
+           .andExpect(model().attribute("hasNext", false));
+  }
+
+}
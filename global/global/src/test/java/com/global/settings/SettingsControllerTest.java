@@ -0,0 +1,203 @@
+package com.global.settings;
+
+import com.global.account.AccountRepository;
+import com.global.account.AccountService;
+import com.global.account.SignUpForm;
+import com.global.account.UserAccount;
+import com.global.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SettingsControllerTest {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  AccountService accountService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  PasswordEncoder passwordEncoder;
+
+  // session 에 저장되는 것과 같은 principal
+  UserAccount userAccount;
+
+  @BeforeEach
+  void beforeEach(){
+    SignUpForm signUpForm = new SignUpForm();
+    signUpForm.setNickName("settingstest");
+    signUpForm.setEmail("settingstest@gmail.com");
+    signUpForm.setPassword("12345678");
+    userAccount = new UserAccount(accountService.processNewAccount(signUpForm));
+  }
+
+  @AfterEach
+  void afterEach(){
+    accountRepository.deleteAll();
+  }
+
+  @DisplayName("프로필 수정 폼 테스트 - form 을 연 때의 버전이 들어 있음")
+  @Test
+  void updateProfileForm() throws Exception{
+    Account account = accountRepository.findByNickName("settingstest");
+    mockMvc.perform(get("/settings/profile").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(view().name("settings/profile"))
+           .andExpect(model().attributeExists("account"))
+           .andExpect(model().attribute("profile", hasProperty("version", is(account.getVersion()))));
+  }
+
+  @DisplayName("프로필 수정 테스트 - 버전이 같으면 프로필 column 만 바꾸고 버전을 늘림")
+  @Test
+  void updateProfile_success() throws Exception{
+    Account before = accountRepository.findByNickName("settingstest");
+    mockMvc.perform(post("/settings/profile")
+           .param("bio", "안녕하세요")
+           .param("version", String.valueOf(before.getVersion()))
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().is3xxRedirection())
+           .andExpect(redirectedUrl("/settings/profile"))
+           .andExpect(flash().attributeExists("message"));
+
+    Account after = accountRepository.findByNickName("settingstest");
+    assertEquals("안녕하세요", after.getBio());
+    assertEquals(before.getVersion() + 1, after.getVersion());
+    assertEquals(before.getPassword(), after.getPassword());
+  }
+
+  @DisplayName("프로필 수정 테스트 - 다른 곳에서 먼저 수정했으면 409 로 form 을 다시 보여주고 바꾸지 않음")
+  @Test
+  void updateProfile_conflict() throws Exception{
+    Account before = accountRepository.findByNickName("settingstest");
+    // 다른 탭에서 먼저 저장함
+    accountService.updatePassword(userAccount, before.getVersion(), "87654321");
+
+    mockMvc.perform(post("/settings/profile")
+           .param("bio", "늦게 저장한 소개")
+           .param("version", String.valueOf(before.getVersion()))
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().isConflict())
+           .andExpect(view().name("settings/profile"))
+           .andExpect(model().attributeExists("conflict"))
+           // 입력한 값은 그대로 두고 버전만 지금 버전으로 바꿈
+           .andExpect(model().attribute("profile", hasProperty("bio", is("늦게 저장한 소개"))))
+           .andExpect(model().attribute("profile", hasProperty("version", is(before.getVersion() + 1))));
+
+    assertNull(accountRepository.findByNickName("settingstest").getBio());
+  }
+
+  @DisplayName("프로필 수정 테스트 - 프로필 사진이 image 가 아니면 form 을 다시 보여주고 바꾸지 않음")
+  @Test
+  void updateProfile_invalid_image() throws Exception{
+    Account before = accountRepository.findByNickName("settingstest");
+    mockMvc.perform(post("/settings/profile")
+           .param("bio", "안녕하세요")
+           .param("profileImage", "data:image/png;base64," + Base64.getEncoder().encodeToString("not an image".getBytes()))
+           .param("version", String.valueOf(before.getVersion()))
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().isOk())
+           .andExpect(view().name("settings/profile"))
+           .andExpect(model().attributeHasFieldErrors("profile", "profileImage"))
+           .andExpect(model().attributeExists("account"));
+
+    Account after = accountRepository.findByNickName("settingstest");
+    assertNull(after.getBio());
+    assertEquals(before.getVersion(), after.getVersion());
+  }
+
+  @DisplayName("비밀번호 수정 폼 테스트 - form 을 연 때의 버전이 들어 있음")
+  @Test
+  void updatePasswordForm() throws Exception{
+    Account account = accountRepository.findByNickName("settingstest");
+    mockMvc.perform(get("/settings/password").with(user(userAccount)))
+           .andExpect(status().isOk())
+           .andExpect(view().name("settings/password"))
+           .andExpect(model().attributeExists("account"))
+           .andExpect(model().attribute("passwordForm", hasProperty("version", is(account.getVersion()))));
+  }
+
+  @DisplayName("비밀번호 수정 테스트 - 입력값 정상인 경우")
+  @Test
+  void updatePassword_success() throws Exception{
+    Account before = accountRepository.findByNickName("settingstest");
+    mockMvc.perform(post("/settings/password")
+           .param("newPassword", "87654321")
+           .param("newPasswordConfirm", "87654321")
+           .param("version", String.valueOf(before.getVersion()))
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().is3xxRedirection())
+           .andExpect(redirectedUrl("/settings/password"))
+           .andExpect(flash().attributeExists("message"));
+
+    Account account = accountRepository.findByNickName("settingstest");
+    assertTrue(passwordEncoder.matches("87654321", account.getPassword()));
+  }
+
+  @DisplayName("비밀번호 수정 테스트 - 다른 곳에서 먼저 수정했으면 409 로 form 을 다시 보여주고 바꾸지 않음")
+  @Test
+  void updatePassword_conflict() throws Exception{
+    Account before = accountRepository.findByNickName("settingstest");
+    // 다른 탭에서 먼저 저장함
+    accountService.updatePassword(userAccount, before.getVersion(), "87654321");
+
+    mockMvc.perform(post("/settings/password")
+           .param("newPassword", "11112222")
+           .param("newPasswordConfirm", "11112222")
+           .param("version", String.valueOf(before.getVersion()))
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().isConflict())
+           .andExpect(view().name("settings/password"))
+           .andExpect(model().attributeExists("conflict"))
+           // 입력한 비밀번호는 지우고 버전만 지금 버전으로 바꿈
+           .andExpect(model().attribute("passwordForm", hasProperty("newPassword", nullValue())))
+           .andExpect(model().attribute("passwordForm", hasProperty("version", is(before.getVersion() + 1))));
+
+    Account account = accountRepository.findByNickName("settingstest");
+    assertTrue(passwordEncoder.matches("87654321", account.getPassword()));
+  }
+
+  @DisplayName("비밀번호 수정 테스트 - 입력값 에러인 경우")
+  @Test
+  void updatePassword_fail() throws Exception{
+    mockMvc.perform(post("/settings/password")
+           .param("newPassword", "12345678")
+           .param("newPasswordConfirm", "11111111")
+           .with(user(userAccount))
+           .with(csrf()))
+           .andExpect(status().isOk())
+           .andExpect(view().name("settings/password"))
+           .andExpect(model().hasErrors())
+           .andExpect(model().attributeExists("passwordForm"))
+           .andExpect(model().attributeExists("account"));
+  }
+
+}